@@ -0,0 +1,72 @@
+package net.sepp_tember.lib.randomizer.benchmarks;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.sepp_tember.lib.randomizer.ConcurrentWeightedRandomizedList;
+import net.sepp_tember.lib.randomizer.FrozenWeightedRandomizedList;
+import net.sepp_tember.lib.randomizer.RandomSources;
+import net.sepp_tember.lib.randomizer.ShardedWeightedRandomizedList;
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList;
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures draws by several threads sharing one randomized iterator, which
+ * uses the thread-local random source. Run with {@code -t} to vary the number
+ * of threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentDrawBenchmark {
+
+	/**
+	 * Thread-safe lists to draw from.
+	 */
+	public enum Implementation {
+		FROZEN, CONCURRENT, SHARDED
+	}
+
+	@Param({"1000", "1000000"})
+	private int size;
+
+	@Param
+	private WeightDistribution distribution;
+
+	@Param
+	private Implementation implementation;
+
+	private Iterator<WeightedElement<Integer>> iterator;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<WeightedElement<Integer>> elements = distribution.createElements(size);
+		switch (implementation) {
+			case FROZEN:
+				FrozenWeightedRandomizedList<Integer> frozen = new WeightedRandomizedList<>(elements).freeze();
+				iterator = frozen.randomizedIterator(RandomSources.threadLocal());
+				break;
+			case CONCURRENT:
+				iterator = new ConcurrentWeightedRandomizedList<>(elements).randomizedIterator();
+				break;
+			case SHARDED:
+				ShardedWeightedRandomizedList<Integer> sharded = new ShardedWeightedRandomizedList<>();
+				sharded.addAll(elements);
+				iterator = sharded.randomizedIterator();
+				break;
+			default:
+				throw new IllegalStateException("Unknown implementation " + implementation + ".");
+		}
+	}
+
+	@Benchmark
+	public WeightedElement<Integer> next() {
+		return iterator.next();
+	}
+}
@@ -0,0 +1,51 @@
+package net.sepp_tember.lib.randomizer.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sepp_tember.lib.randomizer.DrawEngine;
+import net.sepp_tember.lib.randomizer.WeightedRandomizedEndlessIterator;
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList;
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures a single draw by {@code randomizedIterator().next()} for each draw
+ * engine. The list is not modified during a trial, so the sampling data it
+ * shares with its iterators is built once by the first draw and its cost is
+ * not included, see {@link IteratorConstructionBenchmark}.
+ * <p>
+ * The linear scan costs O(n) per draw, so a single draw from the largest
+ * lists takes milliseconds. Exclude it by {@code -p engine=ALIAS_TABLE,FENWICK_TREE}
+ * for quick runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class DrawBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	private int size;
+
+	@Param
+	private WeightDistribution distribution;
+
+	@Param
+	private DrawEngine engine;
+
+	private WeightedRandomizedEndlessIterator<Integer> iterator;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		WeightedRandomizedList<Integer> list = new WeightedRandomizedList<>(distribution.createElements(size));
+		list.setDrawEngine(engine);
+		iterator = list.randomizedIterator();
+	}
+
+	@Benchmark
+	public WeightedElement<Integer> next() {
+		return iterator.next();
+	}
+}
@@ -0,0 +1,48 @@
+package net.sepp_tember.lib.randomizer.benchmarks;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import net.sepp_tember.lib.randomizer.DrawEngine;
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList;
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the creation of a randomized iterator followed by a single draw,
+ * i.e. the cost of a short-lived iterator. The sampling data is kept by the
+ * list and shared by all its iterators. The alias table is built on the first
+ * draw after a modification of the list and the Fenwick tree is maintained
+ * on each modification, so both are built only once per trial here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class IteratorConstructionBenchmark {
+
+	@Param({"10", "1000", "100000"})
+	private int size;
+
+	@Param
+	private WeightDistribution distribution;
+
+	@Param
+	private DrawEngine engine;
+
+	private WeightedRandomizedList<Integer> list;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		list = new WeightedRandomizedList<>(distribution.createElements(size));
+		list.setDrawEngine(engine);
+	}
+
+	@Benchmark
+	public WeightedElement<Integer> createAndDraw() {
+		Iterator<WeightedElement<Integer>> iterator = list.randomizedIterator();
+		return iterator.next();
+	}
+}
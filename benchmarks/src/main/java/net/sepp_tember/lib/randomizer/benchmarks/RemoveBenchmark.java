@@ -0,0 +1,51 @@
+package net.sepp_tember.lib.randomizer.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sepp_tember.lib.randomizer.DrawEngine;
+import net.sepp_tember.lib.randomizer.WeightedRandomizedEndlessIterator;
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList;
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures drawing an element and removing it through the randomized
+ * iterator. To keep the size of the list constant, the removed element is
+ * appended to the list again, so each operation also includes an
+ * {@code add}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class RemoveBenchmark {
+
+	@Param({"10", "1000", "100000"})
+	private int size;
+
+	@Param
+	private WeightDistribution distribution;
+
+	@Param({"LINEAR_SCAN", "FENWICK_TREE"})
+	private DrawEngine engine;
+
+	private WeightedRandomizedList<Integer> list;
+	private WeightedRandomizedEndlessIterator<Integer> iterator;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		list = new WeightedRandomizedList<>(distribution.createElements(size));
+		list.setDrawEngine(engine);
+		iterator = list.randomizedIterator();
+	}
+
+	@Benchmark
+	public WeightedElement<Integer> drawAndRemove() {
+		WeightedElement<Integer> element = iterator.next();
+		iterator.remove();
+		list.add(element);
+		return element;
+	}
+}
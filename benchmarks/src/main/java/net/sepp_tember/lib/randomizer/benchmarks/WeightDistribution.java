@@ -0,0 +1,59 @@
+package net.sepp_tember.lib.randomizer.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * Distributions of the weights of the benchmarked lists.
+ */
+public enum WeightDistribution {
+
+	/**
+	 * All elements have the same weight.
+	 */
+	UNIFORM {
+		@Override
+		double weight(int index) {
+			return 1;
+		}
+	},
+
+	/**
+	 * The weights follow a Zipf distribution, i.e. the weight of the k-th
+	 * heaviest element is {@code 1/k}. The elements are shuffled, so the heavy
+	 * elements are not all at the start of the list.
+	 */
+	SKEWED {
+		@Override
+		double weight(int index) {
+			return 1.0 / (index + 1);
+		}
+	};
+
+	abstract double weight(int index);
+
+	/**
+	 * Creates the elements of a benchmarked list. The value of each element is
+	 * its index in the returned list.
+	 *
+	 * @param size number of elements
+	 *
+	 * @return elements in a reproducible order
+	 */
+	public List<WeightedElement<Integer>> createElements(int size) {
+		List<Double> weights = new ArrayList<>(size);
+		for (int index = 0; index < size; index++) {
+			weights.add(weight(index));
+		}
+		Collections.shuffle(weights, new Random(size));
+		List<WeightedElement<Integer>> elements = new ArrayList<>(size);
+		for (int index = 0; index < size; index++) {
+			elements.add(new WeightedElement<>(weights.get(index), index));
+		}
+		return elements;
+	}
+}
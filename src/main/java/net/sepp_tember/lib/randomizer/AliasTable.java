@@ -0,0 +1,135 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.List;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * Sampler which draws indices in constant time by using an alias table built
+ * with Vose's method.
+ * <p>
+ * The table consists of one column per element. Each column holds the
+ * probability to keep its own index and an alias index returned otherwise. A
+ * single random value is enough to draw an index: its integral part selects
+ * the column and its fractional part decides between the column index and the
+ * alias.
+ *
+ * @see DrawEngine#ALIAS_TABLE
+ */
+class AliasTable implements WeightedSampler {
+
+	private final Weights weights;
+	private double[] probabilities;
+	private int[] aliases;
+
+	/**
+	 * Constructs alias table for the specified list.
+	 *
+	 * @param list source of weights
+	 */
+	AliasTable(List<? extends WeightedElement<?>> list) {
+		weights = Weights.of(list);
+		build();
+	}
+
+	private void build() {
+		int size = weights.size();
+		double[] scaledWeights = new double[size];
+		double totalWeights = 0;
+		for (int index = 0; index < size; index++) {
+			double weight = weights.getWeight(index);
+			scaledWeights[index] = weight;
+			totalWeights = totalWeights + weight;
+		}
+
+		probabilities = new double[size];
+		aliases = new int[size];
+		if (totalWeights == 0) {
+			for (int index = 0; index < size; index++) {
+				aliases[index] = size - 1;
+			}
+			return;
+		}
+
+		int[] small = new int[size];
+		int[] large = new int[size];
+		int smallCount = 0;
+		int largeCount = 0;
+		int heaviest = 0;
+		for (int index = 0; index < size; index++) {
+			scaledWeights[index] = scaledWeights[index] * size / totalWeights;
+			if (scaledWeights[index] > scaledWeights[heaviest]) {
+				heaviest = index;
+			}
+			if (scaledWeights[index] < 1) {
+				small[smallCount++] = index;
+			} else {
+				large[largeCount++] = index;
+			}
+		}
+
+		while (smallCount > 0 && largeCount > 0) {
+			int less = small[--smallCount];
+			int more = large[--largeCount];
+			probabilities[less] = scaledWeights[less];
+			aliases[less] = more;
+			scaledWeights[more] = (scaledWeights[more] + scaledWeights[less]) - 1;
+			if (scaledWeights[more] < 1) {
+				small[smallCount++] = more;
+			} else {
+				large[largeCount++] = more;
+			}
+		}
+		while (largeCount > 0) {
+			int index = large[--largeCount];
+			probabilities[index] = 1;
+			aliases[index] = index;
+		}
+		// only rounding errors leave columns in the small list, which are
+		// nearly full; columns without weight must still never be drawn
+		while (smallCount > 0) {
+			int index = small[--smallCount];
+			probabilities[index] = scaledWeights[index] == 0 ? 0 : 1;
+			aliases[index] = heaviest;
+		}
+	}
+
+	/**
+	 * Returns the probability to keep the index of the specified column.
+	 *
+	 * @param column index of column
+	 *
+	 * @return probability of column index
+	 */
+	double getProbability(int column) {
+		return probabilities[column];
+	}
+
+	/**
+	 * Returns the index drawn if the index of the specified column is not
+	 * kept.
+	 *
+	 * @param column index of column
+	 *
+	 * @return alias index of column
+	 */
+	int getAlias(int column) {
+		return aliases[column];
+	}
+
+	@Override
+	public int sample(double randomValue) {
+		double scaled = randomValue * probabilities.length;
+		int column = Math.min((int) scaled, probabilities.length - 1);
+		return scaled - column < probabilities[column] ? column : aliases[column];
+	}
+
+	/**
+	 * Rebuilds the table, as the probabilities of all columns may change when
+	 * an element is removed.
+	 */
+	@Override
+	public void removed(int index, double weight) {
+		build();
+	}
+}
@@ -0,0 +1,46 @@
+package net.sepp_tember.lib.randomizer;
+
+/**
+ * Running sum of doubles with compensated (Kahan-Babuska-Neumaier) summation.
+ * The rounding error of each addition is accumulated separately, so adding
+ * and subtracting weights over a long time does not let the sum drift away
+ * from the exact sum of the current weights.
+ */
+final class CompensatedSum {
+
+	private double sum;
+	private double compensation;
+
+	/**
+	 * Adds the specified value to this sum. Subtraction is done by adding the
+	 * negated value.
+	 *
+	 * @param value value to add
+	 */
+	void add(double value) {
+		double newSum = sum + value;
+		if (Math.abs(sum) >= Math.abs(value)) {
+			compensation = compensation + ((sum - newSum) + value);
+		} else {
+			compensation = compensation + ((value - newSum) + sum);
+		}
+		sum = newSum;
+	}
+
+	/**
+	 * Returns the current sum.
+	 *
+	 * @return sum of all added values
+	 */
+	double get() {
+		return sum + compensation;
+	}
+
+	/**
+	 * Resets this sum to zero.
+	 */
+	void reset() {
+		sum = 0;
+		compensation = 0;
+	}
+}
@@ -0,0 +1,309 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * A thread-safe randomized list with a weighted randomized iterator. The
+ * distribution of the randomized iterator is the same as described for
+ * {@link WeightedRandomizedEndlessIterator}.
+ * <p>
+ * All reading methods and all draws work on an immutable
+ * {@link FrozenWeightedRandomizedList snapshot} of the list, which is replaced
+ * atomically on each modification. So reading and drawing never blocks, and
+ * draws scale with the number of threads. Each modification copies the list
+ * under a lock and publishes a new snapshot, which costs O(n). Several
+ * modifications should therefore be applied at once by
+ * {@link #update(Consumer)}, which publishes only one snapshot for all of
+ * them.
+ * <p>
+ * The iterators returned by {@link #iterator()}, {@link #listIterator()} and
+ * the lists returned by {@link #subList(int, int)} work on the snapshot at the
+ * time of their creation and do not support modifications, like the iterators
+ * of {@link java.util.concurrent.CopyOnWriteArrayList}. The randomized
+ * iterators in contrast always draw from the latest snapshot.
+ *
+ * @param <E> type of values in weighted elements of this list
+ */
+public class ConcurrentWeightedRandomizedList<E> extends AbstractList<WeightedElement<E>>
+		implements RandomizedList<WeightedElement<E>>, RandomAccess {
+
+	private final Object lock = new Object();
+	private volatile FrozenWeightedRandomizedList<E> snapshot;
+	private final List<Runnable> snapshotListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Constructs a new empty list.
+	 */
+	public ConcurrentWeightedRandomizedList() {
+		this(null);
+	}
+
+	/**
+	 * Constructs a new list filled with elements of specified collection.
+	 *
+	 * @param collection source of elements for list
+	 */
+	public ConcurrentWeightedRandomizedList(Collection<WeightedElement<E>> collection) {
+		snapshot = new FrozenWeightedRandomizedList<>(collection != null ? collection : Collections.emptyList());
+	}
+
+	/**
+	 * Returns the current immutable snapshot of this list.
+	 *
+	 * @return current snapshot
+	 */
+	public FrozenWeightedRandomizedList<E> snapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Applies the specified changes to a copy of this list and publishes the
+	 * result as new snapshot. Concurrent readers see either all changes or none
+	 * of them. The modifications are serialized with all other modifications
+	 * of this list.
+	 *
+	 * @param changes changes to be applied to the elements of this list
+	 */
+	public void update(Consumer<? super List<WeightedElement<E>>> changes) {
+		modify(list -> {
+			changes.accept(list);
+			return null;
+		});
+	}
+
+	private <R> R modify(Function<List<WeightedElement<E>>, R> modification) {
+		synchronized (lock) {
+			List<WeightedElement<E>> list = new ArrayList<>(snapshot);
+			R result = modification.apply(list);
+			snapshot = new FrozenWeightedRandomizedList<>(list);
+			for (Runnable listener : snapshotListeners) {
+				listener.run();
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Registers the specified listener, which is run each time a new snapshot
+	 * has been published. It is run while holding the lock of modifications,
+	 * so it must return quickly, e.g. by just waking up a thread.
+	 *
+	 * @param listener listener to be run after publishing a snapshot
+	 */
+	void addSnapshotListener(Runnable listener) {
+		snapshotListeners.add(listener);
+	}
+
+	/**
+	 * Unregisters the specified listener.
+	 *
+	 * @param listener listener to be removed
+	 */
+	void removeSnapshotListener(Runnable listener) {
+		snapshotListeners.remove(listener);
+	}
+
+	@Override
+	public WeightedElement<E> get(int index) {
+		return snapshot.get(index);
+	}
+
+	@Override
+	public int size() {
+		return snapshot.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return snapshot.isEmpty();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return snapshot.contains(o);
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		return snapshot.indexOf(o);
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return snapshot.lastIndexOf(o);
+	}
+
+	@Override
+	public Object[] toArray() {
+		return snapshot.toArray();
+	}
+
+	@Override
+	public <T> T[] toArray(T[] a) {
+		return snapshot.toArray(a);
+	}
+
+	@Override
+	public Iterator<WeightedElement<E>> iterator() {
+		return snapshot.iterator();
+	}
+
+	@Override
+	public ListIterator<WeightedElement<E>> listIterator() {
+		return snapshot.listIterator();
+	}
+
+	@Override
+	public ListIterator<WeightedElement<E>> listIterator(int index) {
+		return snapshot.listIterator(index);
+	}
+
+	@Override
+	public List<WeightedElement<E>> subList(int fromIndex, int toIndex) {
+		return snapshot.subList(fromIndex, toIndex);
+	}
+
+	@Override
+	public boolean add(WeightedElement<E> element) {
+		return modify(list -> list.add(element));
+	}
+
+	@Override
+	public void add(int index, WeightedElement<E> element) {
+		update(list -> list.add(index, element));
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends WeightedElement<E>> c) {
+		return modify(list -> list.addAll(c));
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends WeightedElement<E>> c) {
+		return modify(list -> list.addAll(index, c));
+	}
+
+	@Override
+	public WeightedElement<E> set(int index, WeightedElement<E> element) {
+		return modify(list -> list.set(index, element));
+	}
+
+	@Override
+	public WeightedElement<E> remove(int index) {
+		return modify(list -> list.remove(index));
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return modify(list -> list.remove(o));
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return modify(list -> list.removeAll(c));
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return modify(list -> list.retainAll(c));
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super WeightedElement<E>> filter) {
+		return modify(list -> list.removeIf(filter));
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<WeightedElement<E>> operator) {
+		update(list -> list.replaceAll(operator));
+	}
+
+	@Override
+	public void sort(Comparator<? super WeightedElement<E>> c) {
+		update(list -> list.sort(c));
+	}
+
+	@Override
+	public void clear() {
+		update(List::clear);
+	}
+
+	/**
+	 * Returns an iterator over the elements in this list in a random, endless
+	 * sequence. Each draw uses the latest snapshot of this list without
+	 * locking. The iterator uses the
+	 * {@link RandomSources#threadLocal() thread-local random source}, so it can
+	 * be shared by several threads. It does not support
+	 * {@link Iterator#remove() remove}.
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 */
+	@Override
+	public Iterator<WeightedElement<E>> randomizedIterator() {
+		return randomizedIterator(RandomSources.threadLocal());
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()} using the
+	 * specified random source. The iterator can only be shared by several
+	 * threads if the random source can.
+	 *
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 */
+	public Iterator<WeightedElement<E>> randomizedIterator(DoubleSupplier randomSource) {
+		Objects.requireNonNull(randomSource, "Random source must not be null.");
+		return new Iterator<WeightedElement<E>>() {
+			@Override
+			public boolean hasNext() {
+				return !snapshot.isEmpty();
+			}
+
+			@Override
+			public WeightedElement<E> next() {
+				FrozenWeightedRandomizedList<E> current = snapshot;
+				return current.get(current.sample(randomSource.getAsDouble()));
+			}
+		};
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()}, whose draws are
+	 * made in advance by a background thread, see
+	 * {@link PrefetchingRandomizedIterator}. The iterator has to be
+	 * {@link PrefetchingRandomizedIterator#close() closed} to stop the
+	 * background thread.
+	 *
+	 * @param capacity number of indices drawn in advance
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 */
+	public PrefetchingRandomizedIterator<E> prefetchingIterator(int capacity) {
+		return new PrefetchingRandomizedIterator<>(this, capacity);
+	}
+
+	/**
+	 * Returns an iterable that provides an iterator like
+	 * {@link #randomizedIterator()} does. Keep in mind that the sequence of
+	 * elements provided by the iterator is endless.
+	 *
+	 * @return iterable that provides an iterator like {@link #randomizedIterator()}
+	 */
+	@Override
+	public Iterable<WeightedElement<E>> randomized() {
+		return this::randomizedIterator;
+	}
+}
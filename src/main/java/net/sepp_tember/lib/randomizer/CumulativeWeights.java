@@ -0,0 +1,64 @@
+package net.sepp_tember.lib.randomizer;
+
+/**
+ * Kernels building and searching the cumulative weights of
+ * {@link FrozenWeightedRandomizedList}.
+ * <p>
+ * This is the implementation for Java 8. The JAR of this library is a
+ * multi-release JAR, which contains another implementation of this class for
+ * Java 17 and later. That one uses the incubating Vector API if the module
+ * {@code jdk.incubator.vector} is available at runtime, i.e. if the JVM is
+ * started with {@code --add-modules jdk.incubator.vector}.
+ */
+final class CumulativeWeights {
+
+	private CumulativeWeights() {
+	}
+
+	/**
+	 * Returns whether the kernels use SIMD instructions of the Vector API.
+	 *
+	 * @return always false in this implementation
+	 */
+	static boolean isVectorized() {
+		return false;
+	}
+
+	/**
+	 * Replaces each weight in the specified array by the sum of itself and all
+	 * weights before it.
+	 *
+	 * @param weights weights to accumulate in place
+	 */
+	static void accumulate(double[] weights) {
+		double sum = 0;
+		for (int index = 0; index < weights.length; index++) {
+			sum = sum + weights[index];
+			weights[index] = sum;
+		}
+	}
+
+	/**
+	 * Returns the index of the first cumulative weight which is greater than
+	 * the specified value. If there is none, because of rounding errors the
+	 * value can be greater than the total weight, the last index is returned.
+	 *
+	 * @param cumulativeWeights non-empty array of cumulative weights
+	 * @param value value to search for
+	 *
+	 * @return index of first cumulative weight greater than the value
+	 */
+	static int search(double[] cumulativeWeights, double value) {
+		int low = 0;
+		int high = cumulativeWeights.length - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (cumulativeWeights[middle] <= value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+}
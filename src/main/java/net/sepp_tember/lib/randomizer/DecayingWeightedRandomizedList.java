@@ -0,0 +1,218 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.*;
+import java.util.function.DoubleSupplier;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * A randomized list with a weighted randomized iterator, whose weights decay
+ * over time, e.g. for selections preferring recent elements. Each call to
+ * {@link #decay(double)} multiplies the weights of all elements currently in
+ * the list by the same factor, while elements added afterwards keep their full
+ * weight. So older elements lose weight exponentially relative to newer ones.
+ * <p>
+ * Decaying all weights does not change their ratios, so the weights are not
+ * touched on decay. Instead the list stores each weight multiplied by a global
+ * scale factor, which grows on each decay. An element added later is stored
+ * with the scale of that time, which boosts it relative to the elements added
+ * before. Thus decaying costs O(1) regardless of the size of the list. Only
+ * when the scale factor becomes too large, all stored weights are divided by
+ * it once and the scale factor is reset, which costs O(n) but happens rarely.
+ * Elements whose weight decays below the smallest positive {@code double}
+ * end up with a weight of zero and are never drawn again.
+ * <p>
+ * The stored weights are kept in primitive arrays (see
+ * {@link StorageMode#PRIMITIVE_ARRAYS}) and a binary indexed tree (see
+ * {@link DrawEngine#FENWICK_TREE}), so draws and modifications by index cost
+ * O(log n). The weighted elements returned by {@link #get(int)} hold the
+ * decayed weight and are created on each access, so they are equal but not
+ * identical to the added ones.
+ * <p>
+ * This list is not thread-safe.
+ *
+ * @param <E> type of values in weighted elements of this list
+ */
+public class DecayingWeightedRandomizedList<E> extends AbstractList<WeightedElement<E>>
+		implements RandomizedList<WeightedElement<E>>, RandomAccess {
+
+	/**
+	 * Scale factor above which the stored weights are renormalized. It leaves
+	 * enough room below the maximum {@code double} for large weights.
+	 */
+	static final double RENORMALIZATION_THRESHOLD = 0x1p64;
+
+	private final WeightedElementArrayList<E> storage = new WeightedElementArrayList<>();
+	private final FenwickTree tree = new FenwickTree(storage);
+	private final WeightedSampler sampler = new WeightedSampler() {
+		@Override
+		public int sample(double randomValue) {
+			return tree.sample(randomValue);
+		}
+
+		@Override
+		public void removed(int index, double weight) {
+			// the tree has already been updated by remove(int)
+		}
+	};
+	private double scale = 1;
+
+	/**
+	 * Constructs a new empty decaying weighted randomized list.
+	 */
+	public DecayingWeightedRandomizedList() {
+	}
+
+	/**
+	 * Constructs a new decaying weighted randomized list filled with elements
+	 * of specified collection.
+	 *
+	 * @param collection source of elements for list
+	 */
+	public DecayingWeightedRandomizedList(Collection<? extends WeightedElement<E>> collection) {
+		if (collection != null) {
+			addAll(collection);
+		}
+	}
+
+	/**
+	 * Multiplies the weights of all elements in this list by the specified
+	 * factor. This costs O(1), apart from an occasional renormalization of the
+	 * stored weights.
+	 *
+	 * @param factor decay factor in the range {@code (0, 1]}
+	 *
+	 * @throws IllegalArgumentException if the factor is not in the range
+	 * {@code (0, 1]}
+	 */
+	public void decay(double factor) {
+		if (!(factor > 0 && factor <= 1)) {
+			throw new IllegalArgumentException("Decay factor must be in the range (0, 1], but is " + factor + ".");
+		}
+		scale = scale / factor;
+		if (scale > RENORMALIZATION_THRESHOLD) {
+			renormalize();
+		}
+	}
+
+	/**
+	 * Divides all stored weights by the scale factor and resets it.
+	 */
+	private void renormalize() {
+		storage.scaleWeights(1 / scale);
+		scale = 1;
+		tree.invalidate();
+	}
+
+	/**
+	 * Returns the current decayed weight of the element at the specified
+	 * index without creating a weighted element.
+	 *
+	 * @param index index of element
+	 *
+	 * @return decayed weight of element
+	 */
+	public double getWeight(int index) {
+		return storage.getWeight(index) / scale;
+	}
+
+	/**
+	 * Returns the sum of the current decayed weights of all elements.
+	 *
+	 * @return total weight of this list
+	 */
+	public double getTotalWeight() {
+		return tree.getTotalWeight() / scale;
+	}
+
+	@Override
+	public int size() {
+		return storage.size();
+	}
+
+	@Override
+	public WeightedElement<E> get(int index) {
+		return new WeightedElement<>(getWeight(index), storage.getElement(index));
+	}
+
+	@Override
+	public WeightedElement<E> set(int index, WeightedElement<E> element) {
+		Objects.requireNonNull(element, "Element must not be null.");
+		WeightedElement<E> previous = get(index);
+		double weight = element.getWeight() * scale;
+		storage.set(index, new WeightedElement<>(weight, element.getElement()));
+		tree.set(index, weight);
+		return previous;
+	}
+
+	@Override
+	public void add(int index, WeightedElement<E> element) {
+		Objects.requireNonNull(element, "Element must not be null.");
+		double weight = element.getWeight() * scale;
+		if (index == storage.size()) {
+			storage.append(weight, element.getElement());
+		} else {
+			storage.add(index, new WeightedElement<>(weight, element.getElement()));
+		}
+		tree.insert(index, weight);
+		modCount++;
+	}
+
+	@Override
+	public WeightedElement<E> remove(int index) {
+		WeightedElement<E> removed = get(index);
+		storage.remove(index);
+		tree.remove(index);
+		modCount++;
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		storage.clear();
+		tree.clear();
+		scale = 1;
+		modCount++;
+	}
+
+	/**
+	 * Returns an endless iterator that delivers the elements of this list in
+	 * a random order with a distribution proportional to their decayed
+	 * weights, see {@link WeightedRandomizedEndlessIterator}. The iterator
+	 * always draws from the current state of this list, so it reflects
+	 * modifications and decays after its creation.
+	 *
+	 * @return an endless iterator with weighted random order
+	 */
+	@Override
+	public WeightedRandomizedEndlessIterator<E> randomizedIterator() {
+		return randomizedIterator(RandomSources.newRandom());
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()} using the
+	 * specified random source.
+	 *
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 *
+	 * @return an endless iterator with weighted random order
+	 *
+	 * @throws NullPointerException if the specified random source is null
+	 */
+	public WeightedRandomizedEndlessIterator<E> randomizedIterator(DoubleSupplier randomSource) {
+		Objects.requireNonNull(randomSource, "Random source must not be null.");
+		return new WeightedRandomizedEndlessIterator<>(this, sampler, randomSource);
+	}
+
+	/**
+	 * Returns an iterable that provides an iterator like
+	 * {@link #randomizedIterator()} does.
+	 *
+	 * @return iterable that provides an iterator like {@link #randomizedIterator()}
+	 */
+	@Override
+	public Iterable<WeightedElement<E>> randomized() {
+		return this::randomizedIterator;
+	}
+}
@@ -0,0 +1,75 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Helper to allocate and release direct buffers. The memory of a direct buffer
+ * is usually released when the buffer is garbage collected, which can take
+ * arbitrarily long for buffers that survived into the old generation. So the
+ * memory is released explicitly through the cleaner of the buffer, which is
+ * accessible by {@code sun.misc.Unsafe.invokeCleaner} since Java 9 and by the
+ * {@code cleaner()} method of the buffer in Java 8. If neither is accessible,
+ * releasing is left to the garbage collector.
+ */
+final class DirectBuffers {
+
+	private static final Object UNSAFE;
+	private static final Method INVOKE_CLEANER;
+
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field field = unsafeClass.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = field.get(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			invokeCleaner = null;
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	private DirectBuffers() {
+	}
+
+	/**
+	 * Allocates a direct buffer for the specified number of doubles in native
+	 * byte order.
+	 *
+	 * @param capacity number of doubles
+	 *
+	 * @return buffer with specified capacity
+	 */
+	static ByteBuffer allocateDoubles(int capacity) {
+		return ByteBuffer.allocateDirect(Math.multiplyExact(capacity, Double.BYTES)).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Releases the memory of the specified direct buffer. The buffer and all
+	 * views of it must not be used afterwards.
+	 *
+	 * @param buffer buffer to be released
+	 */
+	static void release(ByteBuffer buffer) {
+		try {
+			if (INVOKE_CLEANER != null) {
+				INVOKE_CLEANER.invoke(UNSAFE, buffer);
+			} else {
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (cleaner != null) {
+					cleaner.getClass().getMethod("clean").invoke(cleaner);
+				}
+			}
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// the memory is released when the buffer is garbage collected
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.List;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * The draw engine determines how a {@link WeightedRandomizedEndlessIterator}
+ * finds the element belonging to a random value. All engines deliver the same
+ * weighted distribution, they only differ in the costs of building the engine,
+ * drawing an element and removing an element.
+ *
+ * @see WeightedRandomizedList#setDrawEngine(DrawEngine)
+ */
+public enum DrawEngine {
+
+	/**
+	 * Scans the list and accumulates the weights on each draw. Creating the
+	 * engine costs O(n) to sum up the weights, each draw costs O(n) and
+	 * removing an element costs O(1). This is the default engine.
+	 */
+	LINEAR_SCAN {
+		@Override
+		WeightedSampler createSampler(List<? extends WeightedElement<?>> list) {
+			return new LinearScanSampler(list);
+		}
+	},
+
+	/**
+	 * Uses an alias table built with Vose's method. Creating the engine costs
+	 * O(n), each draw costs one random number and two array reads regardless
+	 * of the size of the list. Removing an element rebuilds the table and
+	 * thus costs O(n).
+	 */
+	ALIAS_TABLE {
+		@Override
+		WeightedSampler createSampler(List<? extends WeightedElement<?>> list) {
+			return new AliasTable(list);
+		}
+	},
+
+	/**
+	 * Keeps the weights in a binary indexed tree (Fenwick tree). Creating the
+	 * engine costs O(n), each draw costs O(log n). Changing the weight of an
+	 * element or appending an element costs O(log n), inserting or removing an
+	 * element costs as much as shifting the subsequent elements. A
+	 * {@link WeightedRandomizedList} using this engine maintains one tree on
+	 * all of its modifications, which is shared by all of its randomized
+	 * iterators, so the tree is never built again.
+	 */
+	FENWICK_TREE {
+		@Override
+		WeightedSampler createSampler(List<? extends WeightedElement<?>> list) {
+			return new FenwickTree(list);
+		}
+	};
+
+	/**
+	 * Creates a sampler drawing indices of the specified list.
+	 *
+	 * @param list source of weights
+	 *
+	 * @return sampler for the specified list
+	 */
+	abstract WeightedSampler createSampler(List<? extends WeightedElement<?>> list);
+}
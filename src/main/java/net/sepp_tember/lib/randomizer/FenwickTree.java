@@ -0,0 +1,256 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * Sampler which keeps the weights of a list in a binary indexed tree (also
+ * known as Fenwick tree). Each node of the tree holds the sum of a range of
+ * weights, so a draw descends the tree in O(log n) and changing a weight
+ * updates O(log n) nodes.
+ * <p>
+ * Inserting or removing an element changes the position of all subsequent
+ * elements, so only the nodes from that position on are rebuilt. This costs
+ * O(1) at the end of the list and at most O(n) otherwise, just like shifting
+ * the elements of an array based list does.
+ * <p>
+ * Replacing a weight adds the difference to the nodes above it, which leaves
+ * rounding residue of the replaced weight in these nodes. The residue is
+ * negligible unless the replaced weights are much larger than the remaining
+ * ones. So all nodes are rebuilt from the weights once the largest total
+ * weight the nodes held since their last rebuild exceeds the current total
+ * weight by a factor of 2<sup>20</sup>.
+ * <p>
+ * A tree {@link #invalidate() invalidated} by an untracked modification is
+ * rebuilt lazily under the lock of the tree, so several threads may draw
+ * concurrently from a tree whose source is not modified meanwhile.
+ *
+ * @see DrawEngine#FENWICK_TREE
+ */
+class FenwickTree implements WeightedSampler {
+
+	/**
+	 * Ratio of the largest total weight since the last rebuild of the nodes
+	 * to the current total weight, above which the nodes are rebuilt.
+	 */
+	static final double REBUILD_RATIO = 0x1p20;
+
+	private final Weights source;
+	private double[] weights;
+	private double[] tree;
+	private int size;
+	private double peakWeight;
+	private volatile boolean stale;
+
+	/**
+	 * Constructs tree for the weights of the specified list.
+	 *
+	 * @param source source of weights
+	 */
+	FenwickTree(List<? extends WeightedElement<?>> source) {
+		this.source = Weights.of(source);
+		rebuild();
+	}
+
+	private void rebuild() {
+		size = source.size();
+		weights = new double[Math.max(size, 10)];
+		tree = new double[weights.length + 1];
+		for (int index = 0; index < size; index++) {
+			weights[index] = source.getWeight(index);
+		}
+		rebuildFrom(0);
+		peakWeight = sumNodes();
+		stale = false;
+	}
+
+	/**
+	 * Rebuilds the tree if it is stale. Only one thread rebuilds, the others
+	 * see the rebuilt tree once the stale flag has been cleared.
+	 */
+	private void ensureBuilt() {
+		if (stale) {
+			synchronized (this) {
+				if (stale) {
+					rebuild();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds all nodes covering the specified index or higher indices. Each
+	 * node is the weight of its own position plus the sum of its child nodes,
+	 * which are all either below the specified index and thus unchanged or
+	 * rebuilt before.
+	 */
+	private void rebuildFrom(int index) {
+		for (int node = index + 1; node <= size; node++) {
+			double sum = weights[node - 1];
+			int range = node & -node;
+			for (int child = 1; child < range; child <<= 1) {
+				sum = sum + tree[node - child];
+			}
+			tree[node] = sum;
+		}
+	}
+
+	/**
+	 * Recomputes all nodes from the current weights. This removes rounding
+	 * residue left in the nodes by {@link #set(int, double)}.
+	 */
+	void rebuildNodes() {
+		ensureBuilt();
+		rebuildFrom(0);
+		peakWeight = sumNodes();
+	}
+
+	/**
+	 * Rebuilds all nodes if the total weight has dropped so far below the
+	 * largest total weight since the last rebuild, that rounding residue of
+	 * replaced or removed weights may distort the remaining weights.
+	 */
+	private void removeResidue() {
+		double total = sumNodes();
+		if (total > peakWeight) {
+			peakWeight = total;
+		} else if (peakWeight > total * REBUILD_RATIO) {
+			rebuildFrom(0);
+			peakWeight = sumNodes();
+		}
+	}
+
+	private double sumNodes() {
+		double sum = 0;
+		for (int node = size; node > 0; node -= node & -node) {
+			sum = sum + tree[node];
+		}
+		return sum;
+	}
+
+	/**
+	 * Marks the tree as out of sync with its source list. The tree is rebuilt
+	 * from the source list on the next draw.
+	 */
+	void invalidate() {
+		stale = true;
+	}
+
+	/**
+	 * Returns whether the tree will be rebuilt on the next access.
+	 *
+	 * @return true if the tree is out of sync with its source list
+	 */
+	boolean isStale() {
+		return stale;
+	}
+
+	/**
+	 * Returns the sum of all weights.
+	 *
+	 * @return total weight
+	 */
+	double getTotalWeight() {
+		ensureBuilt();
+		return sumNodes();
+	}
+
+	/**
+	 * Returns the weight at the specified index.
+	 *
+	 * @param index index of weight
+	 *
+	 * @return weight at specified index
+	 */
+	double getWeight(int index) {
+		ensureBuilt();
+		return weights[index];
+	}
+
+	/**
+	 * Replaces the weight at the specified index. All nodes are rebuilt if
+	 * the replaced weight dominated the remaining ones, see the description
+	 * of this class.
+	 *
+	 * @param index index of changed weight
+	 * @param weight new weight
+	 */
+	void set(int index, double weight) {
+		if (stale) {
+			return;
+		}
+		double delta = weight - weights[index];
+		weights[index] = weight;
+		for (int node = index + 1; node <= size; node += node & -node) {
+			tree[node] = tree[node] + delta;
+		}
+		removeResidue();
+	}
+
+	/**
+	 * Inserts a weight at the specified index and shifts subsequent weights.
+	 *
+	 * @param index index of inserted weight
+	 * @param weight inserted weight
+	 */
+	void insert(int index, double weight) {
+		if (stale) {
+			return;
+		}
+		if (size == weights.length) {
+			int capacity = size + (size >> 1);
+			weights = Arrays.copyOf(weights, capacity);
+			tree = Arrays.copyOf(tree, capacity + 1);
+		}
+		System.arraycopy(weights, index, weights, index + 1, size - index);
+		weights[index] = weight;
+		size++;
+		rebuildFrom(index);
+		removeResidue();
+	}
+
+	/**
+	 * Removes the weight at the specified index and shifts subsequent weights.
+	 *
+	 * @param index index of removed weight
+	 */
+	void remove(int index) {
+		if (stale) {
+			return;
+		}
+		System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+		size--;
+		rebuildFrom(index);
+		removeResidue();
+	}
+
+	/**
+	 * Removes all weights.
+	 */
+	void clear() {
+		size = 0;
+		peakWeight = 0;
+		stale = false;
+	}
+
+	@Override
+	public int sample(double randomValue) {
+		double target = randomValue * getTotalWeight();
+		int position = 0;
+		for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+			int node = position + step;
+			if (node <= size && tree[node] <= target) {
+				target = target - tree[node];
+				position = node;
+			}
+		}
+		return Math.min(position, size - 1);
+	}
+
+	@Override
+	public void removed(int index, double weight) {
+		remove(index);
+	}
+}
@@ -0,0 +1,209 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.*;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * An immutable randomized list with a weighted randomized iterator. Instances
+ * are created by {@link WeightedRandomizedList#freeze()} for lists which are
+ * built once and read afterwards.
+ * <p>
+ * The list stores its elements in an array together with an array of
+ * cumulative weights, i.e. the sum of the weights of each element and all
+ * elements before it. Its randomized iterator finds the drawn element by a
+ * binary search on the cumulative weights, which costs O(log n) per draw and
+ * nothing to create the iterator. The distribution of the elements is the same
+ * as described for {@link WeightedRandomizedEndlessIterator}.
+ * <p>
+ * All methods modifying the list throw an {@link UnsupportedOperationException}.
+ *
+ * @see WeightedRandomizedList#freeze()
+ *
+ * @param <E> type of values in weighted elements of this list
+ */
+public final class FrozenWeightedRandomizedList<E> extends AbstractList<WeightedElement<E>>
+		implements RandomizedList<WeightedElement<E>>, RandomAccess {
+
+	private final WeightedElement<E>[] elements;
+	private final double[] cumulativeWeights;
+
+	/**
+	 * Constructs an immutable copy of the specified elements.
+	 *
+	 * @param collection source of elements for list
+	 */
+	FrozenWeightedRandomizedList(Collection<? extends WeightedElement<E>> collection) {
+		@SuppressWarnings("unchecked")
+		WeightedElement<E>[] copy = (WeightedElement<E>[]) collection.toArray(new WeightedElement<?>[0]);
+		elements = copy;
+		cumulativeWeights = new double[elements.length];
+		for (int index = 0; index < elements.length; index++) {
+			cumulativeWeights[index] = elements[index].getWeight();
+		}
+		CumulativeWeights.accumulate(cumulativeWeights);
+	}
+
+	/**
+	 * Returns the element at the specified position in this list.
+	 *
+	 * @param index index of the element to return
+	 *
+	 * @return the element at the specified position in this list
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 */
+	@Override
+	public WeightedElement<E> get(int index) {
+		return elements[index];
+	}
+
+	/**
+	 * Returns the number of elements in this list.
+	 *
+	 * @return the number of elements in this list
+	 */
+	@Override
+	public int size() {
+		return elements.length;
+	}
+
+	/**
+	 * Returns the sum of the weights of all elements in this list.
+	 *
+	 * @return total weight of this list
+	 */
+	public double getTotalWeight() {
+		return elements.length == 0 ? 0 : cumulativeWeights[elements.length - 1];
+	}
+
+	/**
+	 * Returns an iterator over the elements in this list in a random, endless
+	 * sequence with the same distribution as
+	 * {@link WeightedRandomizedList#randomizedIterator()}. The iterator does
+	 * not support {@link Iterator#remove() remove}.
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 */
+	@Override
+	public Iterator<WeightedElement<E>> randomizedIterator() {
+		return randomizedIterator(RandomSources.newRandom());
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()} using the
+	 * specified random source.
+	 *
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 */
+	public Iterator<WeightedElement<E>> randomizedIterator(DoubleSupplier randomSource) {
+		return new CumulativeWeightsIterator(randomSource);
+	}
+
+	/**
+	 * Returns a stream of the specified number of elements drawn from this
+	 * list with the same distribution as {@link #randomizedIterator()}. The
+	 * stream can be processed in {@link Stream#parallel() parallel}, which
+	 * spreads the draws over the common fork/join pool. See
+	 * {@link #randomizedStream(long, long)} for reproducible streams.
+	 *
+	 * @param count number of drawn elements
+	 *
+	 * @return stream of drawn elements
+	 *
+	 * @throws IllegalArgumentException if the count is negative
+	 * @throws NoSuchElementException on the first draw if this list is empty
+	 */
+	public Stream<WeightedElement<E>> randomizedStream(long count) {
+		return randomizedStream(count, new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * Returns a stream like {@link #randomizedStream(long)}, whose draws are
+	 * determined by the specified seed. Streams of the same list with the same
+	 * seed deliver the same elements in the same order, regardless of whether
+	 * they are processed sequentially or in parallel.
+	 *
+	 * @param count number of drawn elements
+	 * @param seed seed of the draws
+	 *
+	 * @return stream of drawn elements
+	 *
+	 * @throws IllegalArgumentException if the count is negative
+	 * @throws NoSuchElementException on the first draw if this list is empty
+	 */
+	public Stream<WeightedElement<E>> randomizedStream(long count, long seed) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Count must not be negative, but is " + count + ".");
+		}
+		return StreamSupport.stream(new RandomizedSpliterator<>(this, seed, 0, count), false);
+	}
+
+	/**
+	 * Returns an iterable that provides an iterator like
+	 * {@link #randomizedIterator()} does. Keep in mind that the sequence of
+	 * elements provided by the iterator is endless.
+	 *
+	 * @return iterable that provides an iterator like {@link #randomizedIterator()}
+	 */
+	@Override
+	public Iterable<WeightedElement<E>> randomized() {
+		return this::randomizedIterator;
+	}
+
+	/**
+	 * Returns the index of the element belonging to the specified random value.
+	 *
+	 * @param randomValue uniformly distributed value in the range {@code [0, 1)}
+	 *
+	 * @return index of drawn element
+	 *
+	 * @throws NoSuchElementException if this list is empty
+	 */
+	int sample(double randomValue) {
+		if (elements.length == 0) {
+			throw new NoSuchElementException();
+		}
+		return search(randomValue * cumulativeWeights[elements.length - 1]);
+	}
+
+	/**
+	 * Returns the index of the first element whose cumulative weight is greater
+	 * than the specified value. If there is none, because of rounding errors
+	 * the value can be greater than the total weight, the last index is
+	 * returned.
+	 *
+	 * @see CumulativeWeights#search(double[], double)
+	 */
+	int search(double value) {
+		return CumulativeWeights.search(cumulativeWeights, value);
+	}
+
+	private final class CumulativeWeightsIterator implements Iterator<WeightedElement<E>> {
+
+		private final DoubleSupplier randomSource;
+
+		private CumulativeWeightsIterator(DoubleSupplier randomSource) {
+			this.randomSource = randomSource;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return elements.length > 0;
+		}
+
+		@Override
+		public WeightedElement<E> next() {
+			return elements[sample(randomSource.getAsDouble())];
+		}
+	}
+}
@@ -0,0 +1,398 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.*;
+import java.util.function.DoubleSupplier;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * A randomized list with a weighted randomized iterator, whose elements are
+ * organized in groups, e.g. items in categories. The weight of a group is the
+ * sum of the weights of its elements and is kept up to date automatically
+ * whenever an element of the group is added, replaced or removed.
+ * <p>
+ * A draw descends the hierarchy in one call: it first picks a group with a
+ * probability proportional to the weight of the group and then an element
+ * within that group with a probability proportional to the weight of the
+ * element. So each element is drawn with the probability of its weight divided
+ * by the total weight of the list, just like described for
+ * {@link WeightedRandomizedEndlessIterator}.
+ * <p>
+ * The weights of the groups and of the elements within each group are kept in
+ * binary indexed trees (see {@link DrawEngine#FENWICK_TREE}). Changing the
+ * weight of an element thus only updates the tree of its group and the tree
+ * of the groups, which costs O(log n), and never requires a rescan of the
+ * list. A draw costs O(log n) as well.
+ * <p>
+ * The elements of a group are accessed by the list returned by
+ * {@link #getGroup(Object)}. The order of this list is the concatenation of
+ * its groups in the order they were created, so index based methods of this
+ * list locate the group of an index first. Adding an element by index adds
+ * it to the group at that position, or to the last group when adding at the
+ * end of the list.
+ * <p>
+ * This list is not thread-safe.
+ *
+ * @param <G> type of group keys
+ * @param <E> type of values in weighted elements of this list
+ */
+public class HierarchicalWeightedRandomizedList<G, E> extends AbstractList<WeightedElement<E>>
+		implements RandomizedList<WeightedElement<E>>, RandomAccess {
+
+	private final Map<G, Group> groups = new LinkedHashMap<>();
+	private final List<WeightedElement<Group>> groupWeights = new ArrayList<>();
+	private final FenwickTree groupTree = new FenwickTree(groupWeights);
+	private int size;
+
+	/**
+	 * Constructs a new empty hierarchical weighted randomized list.
+	 */
+	public HierarchicalWeightedRandomizedList() {
+	}
+
+	/**
+	 * Returns the elements of the group with the specified key. The group is
+	 * created empty if it does not exist yet. The returned list is a view,
+	 * modifications of it are reflected in this list and update the weight of
+	 * the group.
+	 *
+	 * @param key key of group
+	 *
+	 * @return elements of group
+	 */
+	public List<WeightedElement<E>> getGroup(G key) {
+		return groups.computeIfAbsent(key, this::createGroup);
+	}
+
+	private Group createGroup(G key) {
+		Group group = new Group(key, groupWeights.size());
+		groupWeights.add(new WeightedElement<>(0, group));
+		groupTree.insert(group.index, 0);
+		return group;
+	}
+
+	/**
+	 * Appends the specified element to the group with the specified key. The
+	 * group is created if it does not exist yet.
+	 *
+	 * @param key key of group
+	 * @param element element to be added
+	 */
+	public void add(G key, WeightedElement<E> element) {
+		getGroup(key).add(element);
+	}
+
+	/**
+	 * Removes the group with the specified key and all its elements.
+	 *
+	 * @param key key of group
+	 *
+	 * @return true if the group existed
+	 */
+	public boolean removeGroup(G key) {
+		Group group = groups.remove(key);
+		if (group == null) {
+			return false;
+		}
+		size = size - group.elements.size();
+		groupWeights.remove(group.index);
+		groupTree.remove(group.index);
+		for (int index = group.index; index < groupWeights.size(); index++) {
+			groupWeights.get(index).getElement().index = index;
+		}
+		group.index = -1;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Returns the keys of all groups in the order of their creation.
+	 *
+	 * @return unmodifiable set of group keys
+	 */
+	public Set<G> getGroupKeys() {
+		return Collections.unmodifiableSet(groups.keySet());
+	}
+
+	/**
+	 * Returns the sum of the weights of the elements of the group with the
+	 * specified key.
+	 *
+	 * @param key key of group
+	 *
+	 * @return weight of group or 0 if the group does not exist
+	 */
+	public double getGroupWeight(G key) {
+		Group group = groups.get(key);
+		return group != null ? groupTree.getWeight(group.index) : 0;
+	}
+
+	/**
+	 * Returns the sum of the weights of all elements in this list.
+	 *
+	 * @return total weight of this list
+	 */
+	public double getTotalWeight() {
+		return groupTree.getTotalWeight();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public WeightedElement<E> get(int index) {
+		Group group = locate(index, false);
+		return group.get(index - group.offset());
+	}
+
+	@Override
+	public WeightedElement<E> set(int index, WeightedElement<E> element) {
+		Group group = locate(index, false);
+		return group.set(index - group.offset(), element);
+	}
+
+	@Override
+	public void add(int index, WeightedElement<E> element) {
+		if (groups.isEmpty()) {
+			throw new IllegalStateException("Elements can only be added to a group, but there is none.");
+		}
+		Group group = locate(index, true);
+		group.add(index - group.offset(), element);
+	}
+
+	@Override
+	public WeightedElement<E> remove(int index) {
+		Group group = locate(index, false);
+		return group.remove(index - group.offset());
+	}
+
+	/**
+	 * Removes all groups and their elements. Like after
+	 * {@link #removeGroup(Object)}, group lists obtained before can not be
+	 * modified anymore.
+	 */
+	@Override
+	public void clear() {
+		for (Group group : groups.values()) {
+			group.index = -1;
+		}
+		groups.clear();
+		groupWeights.clear();
+		groupTree.clear();
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Returns the group containing the specified index. If the end is
+	 * inclusive, the index equal to the size of the list belongs to the last
+	 * group.
+	 */
+	private Group locate(int index, boolean inclusiveEnd) {
+		if (index >= 0) {
+			int offset = index;
+			for (WeightedElement<Group> entry : groupWeights) {
+				Group group = entry.getElement();
+				int groupSize = group.elements.size();
+				if (offset < groupSize || (inclusiveEnd && offset == groupSize && group.index == groups.size() - 1)) {
+					return group;
+				}
+				offset = offset - groupSize;
+			}
+		}
+		throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+	/**
+	 * Returns an endless iterator that draws the elements of this list by
+	 * descending the hierarchy of groups, see the description of this class.
+	 * The iterator always draws from the current state of this list, so it
+	 * reflects modifications made after its creation.
+	 *
+	 * @return an endless iterator with weighted random order
+	 */
+	@Override
+	public Iterator<WeightedElement<E>> randomizedIterator() {
+		return randomizedIterator(RandomSources.newRandom());
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()} using the
+	 * specified random source. Each draw takes two random values, one for the
+	 * group and one for the element within the group.
+	 *
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 *
+	 * @return an endless iterator with weighted random order
+	 *
+	 * @throws NullPointerException if the specified random source is null
+	 */
+	public Iterator<WeightedElement<E>> randomizedIterator(DoubleSupplier randomSource) {
+		Objects.requireNonNull(randomSource, "Random source must not be null.");
+		return new HierarchicalIterator(randomSource);
+	}
+
+	/**
+	 * Returns an iterable that provides an iterator like
+	 * {@link #randomizedIterator()} does.
+	 *
+	 * @return iterable that provides an iterator like {@link #randomizedIterator()}
+	 */
+	@Override
+	public Iterable<WeightedElement<E>> randomized() {
+		return this::randomizedIterator;
+	}
+
+	/**
+	 * Returns the group the specified random value belongs to. Rounding may
+	 * pick a group without elements at the end of the tree, so the closest
+	 * group with elements is taken then.
+	 */
+	private Group sampleGroup(double randomValue) {
+		int index = groupTree.sample(randomValue);
+		for (int candidate = index; candidate >= 0; candidate--) {
+			Group group = groupWeights.get(candidate).getElement();
+			if (!group.elements.isEmpty()) {
+				return group;
+			}
+		}
+		for (int candidate = index + 1; candidate < groupWeights.size(); candidate++) {
+			Group group = groupWeights.get(candidate).getElement();
+			if (!group.elements.isEmpty()) {
+				return group;
+			}
+		}
+		throw new NoSuchElementException("Can not draw from empty list.");
+	}
+
+	/**
+	 * Elements of one group. Each modification updates the tree of the group
+	 * and publishes the new weight of the group to the tree of the groups.
+	 */
+	private final class Group extends AbstractList<WeightedElement<E>> implements RandomAccess {
+
+		private final G key;
+		private final List<WeightedElement<E>> elements = new ArrayList<>();
+		private final FenwickTree tree = new FenwickTree(elements);
+		private int index;
+
+		private Group(G key, int index) {
+			this.key = key;
+			this.index = index;
+		}
+
+		/**
+		 * Returns the index of the first element of this group in the
+		 * enclosing list.
+		 */
+		private int offset() {
+			int offset = 0;
+			for (int group = 0; group < index; group++) {
+				offset = offset + groupWeights.get(group).getElement().elements.size();
+			}
+			return offset;
+		}
+
+		private void checkNotRemoved() {
+			if (index < 0) {
+				throw new IllegalStateException("Group " + key + " has been removed.");
+			}
+		}
+
+		private void publish() {
+			double weight = elements.isEmpty() ? 0 : Math.max(tree.getTotalWeight(), 0);
+			groupWeights.set(index, new WeightedElement<>(weight, this));
+			groupTree.set(index, weight);
+		}
+
+		@Override
+		public WeightedElement<E> get(int index) {
+			return elements.get(index);
+		}
+
+		@Override
+		public int size() {
+			return elements.size();
+		}
+
+		@Override
+		public WeightedElement<E> set(int index, WeightedElement<E> element) {
+			Objects.requireNonNull(element, "Element must not be null.");
+			checkNotRemoved();
+			WeightedElement<E> previous = elements.set(index, element);
+			tree.set(index, element.getWeight());
+			publish();
+			return previous;
+		}
+
+		@Override
+		public void add(int index, WeightedElement<E> element) {
+			Objects.requireNonNull(element, "Element must not be null.");
+			checkNotRemoved();
+			elements.add(index, element);
+			tree.insert(index, element.getWeight());
+			size++;
+			modCount++;
+			HierarchicalWeightedRandomizedList.this.modCount++;
+			publish();
+		}
+
+		@Override
+		public WeightedElement<E> remove(int index) {
+			checkNotRemoved();
+			WeightedElement<E> removed = elements.remove(index);
+			tree.remove(index);
+			size--;
+			modCount++;
+			HierarchicalWeightedRandomizedList.this.modCount++;
+			publish();
+			return removed;
+		}
+
+		@Override
+		public void clear() {
+			checkNotRemoved();
+			size = size - elements.size();
+			elements.clear();
+			tree.clear();
+			modCount++;
+			HierarchicalWeightedRandomizedList.this.modCount++;
+			publish();
+		}
+	}
+
+	private final class HierarchicalIterator implements Iterator<WeightedElement<E>> {
+
+		private final DoubleSupplier randomSource;
+		private Group lastGroup;
+		private int lastIndex = -1;
+
+		private HierarchicalIterator(DoubleSupplier randomSource) {
+			this.randomSource = randomSource;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !isEmpty();
+		}
+
+		@Override
+		public WeightedElement<E> next() {
+			lastGroup = sampleGroup(randomSource.getAsDouble());
+			lastIndex = lastGroup.tree.sample(randomSource.getAsDouble());
+			return lastGroup.get(lastIndex);
+		}
+
+		@Override
+		public void remove() {
+			if (lastIndex < 0) {
+				throw new IllegalStateException();
+			}
+			lastGroup.remove(lastIndex);
+			lastIndex = -1;
+		}
+	}
+}
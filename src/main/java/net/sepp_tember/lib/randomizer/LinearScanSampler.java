@@ -0,0 +1,61 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.List;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * Sampler which accumulates the weights of the list on each draw until the sum
+ * exceeds the random value.
+ *
+ * @see DrawEngine#LINEAR_SCAN
+ */
+class LinearScanSampler implements WeightedSampler {
+
+	private final Weights weights;
+	private double totalWeights;
+
+	/**
+	 * Constructs sampler for the specified list.
+	 *
+	 * @param list source of weights
+	 */
+	LinearScanSampler(List<? extends WeightedElement<?>> list) {
+		weights = Weights.of(list);
+		for (int index = 0; index < weights.size(); index++) {
+			totalWeights = totalWeights + weights.getWeight(index);
+		}
+	}
+
+	@Override
+	public int sample(double randomValue) {
+		return scan(weights, randomValue * totalWeights);
+	}
+
+	/**
+	 * Returns the index of the first weight at which the sum of all weights up
+	 * to and including it exceeds the specified target, or the last index if
+	 * there is none.
+	 *
+	 * @param weights weights to scan
+	 * @param target random value scaled to the total weight
+	 *
+	 * @return index of drawn element
+	 */
+	static int scan(Weights weights, double target) {
+		double sum = 0;
+		int size = weights.size();
+		for (int index = 0; index < size; index++) {
+			sum = sum + weights.getWeight(index);
+			if (target < sum) {
+				return index;
+			}
+		}
+		return size - 1;
+	}
+
+	@Override
+	public void removed(int index, double weight) {
+		totalWeights = totalWeights - weight;
+	}
+}
@@ -0,0 +1,376 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.*;
+import java.util.function.LongUnaryOperator;
+
+import net.sepp_tember.lib.randomizer.LongWeightedRandomizedList.LongWeightedElement;
+
+/**
+ * A randomized list whose elements have integer weights, e.g. counts of
+ * impressions or stock levels. The weights are stored as primitive
+ * {@code long} values and the elements in a separate array, so like
+ * {@link StorageMode#PRIMITIVE_ARRAYS} no wrapper is kept per entry.
+ * <p>
+ * In contrast to {@link WeightedRandomizedList} no floating point arithmetic
+ * is involved in drawing. The list keeps the exact sum of all weights and a
+ * binary indexed tree of partial sums. A draw takes a uniformly distributed
+ * random {@code long} below the total weight and descends the tree with
+ * integer comparisons only, so each element is drawn with a probability of
+ * exactly its weight divided by the total weight, even for totals above
+ * 2<sup>53</sup>, where {@code double} values can no longer represent every
+ * integer. A draw costs O(log n), as does changing a weight or adding an
+ * element at the end of the list.
+ * <p>
+ * The random values are taken from a bounded random source, a
+ * {@link LongUnaryOperator} mapping an exclusive upper bound to a uniformly
+ * distributed value in the range {@code [0, bound)}, e.g.
+ * {@code new SplittableRandom()::nextLong}.
+ * <p>
+ * The sum of all weights must not exceed {@link Long#MAX_VALUE}. Elements with
+ * a weight of zero may be added, but are never drawn.
+ *
+ * @see RandomizedList
+ *
+ * @param <E> type of values in weighted elements of this list
+ */
+public class LongWeightedRandomizedList<E> extends AbstractList<LongWeightedElement<E>>
+		implements RandomizedList<LongWeightedElement<E>>, RandomAccess {
+
+	/**
+	 * Wrapper for elements to assign an integer weight to them.
+	 *
+	 * @param <E> type of wrapped value
+	 */
+	public static class LongWeightedElement<E> {
+
+		private final long weight;
+		private final E element;
+
+		/**
+		 * Constructor to assign weight to given element.
+		 *
+		 * @param weight associated weight
+		 * @param element value to be weighted
+		 *
+		 * @throws IllegalArgumentException if the weight is negative
+		 */
+		public LongWeightedElement(long weight, E element) {
+			if (weight < 0) {
+				throw new IllegalArgumentException("Weight must not be negative, but is " + weight + ".");
+			}
+			this.weight = weight;
+			this.element = element;
+		}
+
+		/**
+		 * Returns the weight assigned to the element.
+		 *
+		 * @return weight of the element
+		 */
+		public long getWeight() {
+			return weight;
+		}
+
+		/**
+		 * Returns value of wrapped element.
+		 *
+		 * @return value of element
+		 */
+		public E getElement() {
+			return element;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Long.hashCode(weight) + Objects.hashCode(element);
+		}
+
+		/**
+		 * Determines if the specified object is equal to this weighted element,
+		 * which is the case if it is a {@code LongWeightedElement} with the same
+		 * weight and either both elements are null or equal to each other.
+		 *
+		 * @param o object to determine equality to this weighted element
+		 *
+		 * @return true if the specified object is equal to this weighted element
+		 */
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			} else if (!(o instanceof LongWeightedElement)) {
+				return false;
+			}
+			LongWeightedElement<?> other = (LongWeightedElement<?>) o;
+			return weight == other.weight && Objects.equals(element, other.element);
+		}
+
+		@Override
+		public String toString() {
+			return weight + ":" + element;
+		}
+	}
+
+	private static final int DEFAULT_CAPACITY = 10;
+
+	private long[] weights = new long[DEFAULT_CAPACITY];
+	private Object[] elements = new Object[DEFAULT_CAPACITY];
+	/** Binary indexed tree, node {@code i} holds the sum of its range ending at index {@code i - 1}. */
+	private long[] tree = new long[DEFAULT_CAPACITY + 1];
+	private int size;
+	private long totalWeight;
+
+	/**
+	 * Constructs a new empty long weighted randomized list.
+	 */
+	public LongWeightedRandomizedList() {
+	}
+
+	/**
+	 * Constructs a new long weighted randomized list filled with elements of
+	 * specified collection.
+	 *
+	 * @param collection source of elements for list
+	 *
+	 * @throws ArithmeticException if the sum of all weights exceeds
+	 * {@link Long#MAX_VALUE}
+	 */
+	public LongWeightedRandomizedList(Collection<? extends LongWeightedElement<E>> collection) {
+		if (collection != null) {
+			addAll(collection);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public LongWeightedElement<E> get(int index) {
+		checkIndex(index);
+		return new LongWeightedElement<>(weights[index], getElement(index));
+	}
+
+	/**
+	 * Returns the weight of the element at the specified index without
+	 * creating a weighted element.
+	 *
+	 * @param index index of element
+	 *
+	 * @return weight of element
+	 */
+	public long getWeight(int index) {
+		checkIndex(index);
+		return weights[index];
+	}
+
+	/**
+	 * Returns the exact sum of the weights of all elements.
+	 *
+	 * @return total weight
+	 */
+	public long getTotalWeight() {
+		return totalWeight;
+	}
+
+	@Override
+	public LongWeightedElement<E> set(int index, LongWeightedElement<E> element) {
+		Objects.requireNonNull(element, "Element must not be null.");
+		LongWeightedElement<E> previous = get(index);
+		long delta = element.getWeight() - weights[index];
+		totalWeight = checkedTotal(totalWeight + delta, delta > 0);
+		weights[index] = element.getWeight();
+		elements[index] = element.getElement();
+		for (int node = index + 1; node <= size; node += node & -node) {
+			tree[node] += delta;
+		}
+		return previous;
+	}
+
+	@Override
+	public void add(int index, LongWeightedElement<E> element) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		Objects.requireNonNull(element, "Element must not be null.");
+		long weight = element.getWeight();
+		totalWeight = checkedTotal(totalWeight + weight, weight > 0);
+		if (size == weights.length) {
+			int capacity = size + (size >> 1);
+			weights = Arrays.copyOf(weights, capacity);
+			elements = Arrays.copyOf(elements, capacity);
+			tree = Arrays.copyOf(tree, capacity + 1);
+		}
+		System.arraycopy(weights, index, weights, index + 1, size - index);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		weights[index] = weight;
+		elements[index] = element.getElement();
+		size++;
+		modCount++;
+		rebuildFrom(index);
+	}
+
+	@Override
+	public LongWeightedElement<E> remove(int index) {
+		LongWeightedElement<E> removed = get(index);
+		removeRange(index, index + 1);
+		return removed;
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		for (int index = fromIndex; index < toIndex; index++) {
+			totalWeight -= weights[index];
+		}
+		System.arraycopy(weights, toIndex, weights, fromIndex, size - toIndex);
+		System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+		int newSize = size - (toIndex - fromIndex);
+		Arrays.fill(elements, newSize, size, null);
+		size = newSize;
+		modCount++;
+		rebuildFrom(fromIndex);
+	}
+
+	@Override
+	public void clear() {
+		removeRange(0, size);
+	}
+
+	/**
+	 * Returns an endless iterator that delivers the elements of this list in
+	 * a random order with a distribution exactly proportional to their
+	 * weights. The iterator always draws from the current state of this list,
+	 * so it reflects modifications made after its creation.
+	 *
+	 * @return an endless iterator with weighted random order
+	 */
+	@Override
+	public Iterator<LongWeightedElement<E>> randomizedIterator() {
+		return randomizedIterator(new SplittableRandom()::nextLong);
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()} using the
+	 * specified bounded random source.
+	 *
+	 * @param randomSource function mapping an exclusive upper bound to a
+	 * uniformly distributed value in the range {@code [0, bound)}
+	 *
+	 * @return an endless iterator with weighted random order
+	 *
+	 * @throws NullPointerException if the specified random source is null
+	 */
+	public Iterator<LongWeightedElement<E>> randomizedIterator(LongUnaryOperator randomSource) {
+		Objects.requireNonNull(randomSource, "Random source must not be null.");
+		return new LongWeightedIterator(randomSource);
+	}
+
+	/**
+	 * Returns an iterable that provides an iterator like
+	 * {@link #randomizedIterator()} does.
+	 *
+	 * @return iterable that provides an iterator like {@link #randomizedIterator()}
+	 */
+	@Override
+	public Iterable<LongWeightedElement<E>> randomized() {
+		return this::randomizedIterator;
+	}
+
+	/**
+	 * Returns the index of the element the specified random value belongs to,
+	 * which is the lowest index whose cumulative weight exceeds the value.
+	 *
+	 * @param randomValue value in the range {@code [0, totalWeight)}
+	 *
+	 * @return index of drawn element
+	 */
+	int sample(long randomValue) {
+		long target = randomValue;
+		int position = 0;
+		for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+			int node = position + step;
+			if (node <= size && tree[node] <= target) {
+				target -= tree[node];
+				position = node;
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Rebuilds all tree nodes covering the specified index or higher indices,
+	 * like {@link FenwickTree} does.
+	 */
+	private void rebuildFrom(int index) {
+		for (int node = index + 1; node <= size; node++) {
+			long sum = weights[node - 1];
+			int range = node & -node;
+			for (int child = 1; child < range; child <<= 1) {
+				sum += tree[node - child];
+			}
+			tree[node] = sum;
+		}
+	}
+
+	/**
+	 * Returns the specified new total weight unless it overflowed, which is
+	 * the case if it became negative although weight was added.
+	 */
+	private static long checkedTotal(long total, boolean increased) {
+		if (increased && total < 0) {
+			throw new ArithmeticException("Total weight exceeds " + Long.MAX_VALUE + ".");
+		}
+		return total;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E getElement(int index) {
+		return (E) elements[index];
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	private final class LongWeightedIterator implements Iterator<LongWeightedElement<E>> {
+
+		private final LongUnaryOperator randomSource;
+		private int lastIndex = -1;
+
+		private LongWeightedIterator(LongUnaryOperator randomSource) {
+			this.randomSource = randomSource;
+		}
+
+		/**
+		 * Returns whether an element can be drawn, which is the case as long
+		 * as the list contains an element with a positive weight.
+		 *
+		 * @return true if the total weight of the list is positive
+		 */
+		@Override
+		public boolean hasNext() {
+			return totalWeight > 0;
+		}
+
+		@Override
+		public LongWeightedElement<E> next() {
+			if (totalWeight == 0) {
+				throw new NoSuchElementException("Can not draw from list without positive weights.");
+			}
+			lastIndex = sample(randomSource.applyAsLong(totalWeight));
+			return get(lastIndex);
+		}
+
+		@Override
+		public void remove() {
+			if (lastIndex < 0) {
+				throw new IllegalStateException();
+			}
+			LongWeightedRandomizedList.this.remove(lastIndex);
+			lastIndex = -1;
+		}
+	}
+}
@@ -0,0 +1,360 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntToLongFunction;
+import java.util.function.ToLongFunction;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * An immutable randomized list read from a snapshot file, which contains the
+ * weights, a prebuilt alias table (see {@link DrawEngine#ALIAS_TABLE}) and an
+ * id of type {@code long} for each element. The file is mapped into memory by
+ * {@link FileChannel#map}, so opening it neither parses nor rebuilds anything
+ * and the first draw can happen right away. This is meant for services which
+ * would otherwise build a large list from their source data on each start.
+ * <p>
+ * A snapshot file is written by {@link #write(List, ToLongFunction, Path)}.
+ * It is written to a temporary file first, which then atomically replaces the
+ * target file. So a process that still has the previous file mapped keeps
+ * reading the previous content instead of crashing on a truncated file.
+ * The elements of this list are {@link WeightedElement}s with the ids as
+ * values, which are created on each access. The ids usually refer to the
+ * actual elements, e.g. as primary keys or indices into another array. Draws
+ * cost O(1) and the distribution of the randomized iterator is the same as
+ * described for {@link WeightedRandomizedEndlessIterator}.
+ * <p>
+ * The file consists of a header followed by four sections, all in little
+ * endian byte order:
+ * <table class="data">
+ * <tr><th>Offset</th><th>Content</th></tr>
+ * <tr><td>0</td><td>magic number {@code 0x524E4453} ("RNDS") as int</td></tr>
+ * <tr><td>4</td><td>format version as int, currently 1</td></tr>
+ * <tr><td>8</td><td>number of elements {@code n} as int</td></tr>
+ * <tr><td>12</td><td>reserved, 0</td></tr>
+ * <tr><td>16</td><td>total weight as double</td></tr>
+ * <tr><td>24</td><td>reserved, 0</td></tr>
+ * <tr><td>32</td><td>{@code n} weights as doubles</td></tr>
+ * <tr><td>32 + 8n</td><td>{@code n} alias probabilities as doubles</td></tr>
+ * <tr><td>32 + 16n</td><td>{@code n} ids as longs</td></tr>
+ * <tr><td>32 + 24n</td><td>{@code n} alias indices as ints</td></tr>
+ * </table>
+ * A single mapping is limited to 2 GB, so a snapshot holds at most about 76
+ * million elements.
+ * <p>
+ * The mapping is released by {@link #close()}. Afterwards every method
+ * accessing the file throws an {@link IllegalStateException}.
+ */
+public final class MappedWeightedSnapshot extends AbstractList<WeightedElement<Long>>
+		implements RandomizedList<WeightedElement<Long>>, RandomAccess, Weights, AutoCloseable {
+
+	private static final int MAGIC = 0x524E4453;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 32;
+	private static final int BYTES_PER_ELEMENT = 3 * Long.BYTES + Integer.BYTES;
+
+	private final int size;
+	private final double totalWeight;
+	private final int probabilitiesOffset;
+	private final int idsOffset;
+	private final int aliasesOffset;
+	private final WeightedSampler sampler = new MappedSampler();
+	private ByteBuffer buffer;
+
+	private MappedWeightedSnapshot(ByteBuffer buffer, int size, double totalWeight) {
+		this.buffer = buffer;
+		this.size = size;
+		this.totalWeight = totalWeight;
+		this.probabilitiesOffset = HEADER_SIZE + size * Double.BYTES;
+		this.idsOffset = probabilitiesOffset + size * Double.BYTES;
+		this.aliasesOffset = idsOffset + size * Long.BYTES;
+	}
+
+	/**
+	 * Writes a snapshot file of the specified list, whose ids are the indices
+	 * of the elements in the list.
+	 *
+	 * @param list elements to be written
+	 * @param path file to be written, which is replaced atomically if it exists
+	 *
+	 * @throws IOException if the file can not be written or the file system
+	 * does not support replacing it atomically
+	 * @throws IllegalArgumentException if the list is too large for a snapshot
+	 */
+	public static void write(List<? extends WeightedElement<?>> list, Path path) throws IOException {
+		writeFile(list, index -> index, path);
+	}
+
+	/**
+	 * Writes a snapshot file of the specified list, which stores the ids of
+	 * the elements determined by the specified function.
+	 *
+	 * @param list elements to be written
+	 * @param ids function determining the id of a value of an element
+	 * @param path file to be written, which is replaced atomically if it exists
+	 * @param <E> type of values in weighted elements
+	 *
+	 * @throws IOException if the file can not be written or the file system
+	 * does not support replacing it atomically
+	 * @throws IllegalArgumentException if the list is too large for a snapshot
+	 */
+	public static <E> void write(List<? extends WeightedElement<E>> list, ToLongFunction<? super E> ids, Path path)
+			throws IOException {
+		writeFile(list, index -> ids.applyAsLong(list.get(index).getElement()), path);
+	}
+
+	private static void writeFile(List<? extends WeightedElement<?>> list, IntToLongFunction ids, Path path)
+			throws IOException {
+		int size = list.size();
+		long fileSize = HEADER_SIZE + (long) size * BYTES_PER_ELEMENT;
+		if (fileSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("List with " + size + " elements is too large for a snapshot.");
+		}
+		AliasTable aliasTable = new AliasTable(list);
+		Weights weights = Weights.of(list);
+		Path directory = path.toAbsolutePath().getParent();
+		Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+		try {
+			writeMapped(temporary, fileSize, size, weights, aliasTable, ids);
+			Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	private static void writeMapped(Path path, long fileSize, int size, Weights weights, AliasTable aliasTable,
+			IntToLongFunction ids) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer mapped = channel.map(MapMode.READ_WRITE, 0, fileSize);
+			ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+			double totalWeight = 0;
+			int weightsOffset = HEADER_SIZE;
+			int probabilitiesOffset = weightsOffset + size * Double.BYTES;
+			int idsOffset = probabilitiesOffset + size * Double.BYTES;
+			int aliasesOffset = idsOffset + size * Long.BYTES;
+			for (int index = 0; index < size; index++) {
+				double weight = weights.getWeight(index);
+				totalWeight = totalWeight + weight;
+				buffer.putDouble(weightsOffset + index * Double.BYTES, weight);
+				buffer.putDouble(probabilitiesOffset + index * Double.BYTES, aliasTable.getProbability(index));
+				buffer.putLong(idsOffset + index * Long.BYTES, ids.applyAsLong(index));
+				buffer.putInt(aliasesOffset + index * Integer.BYTES, aliasTable.getAlias(index));
+			}
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+			buffer.putInt(8, size);
+			buffer.putInt(12, 0);
+			buffer.putDouble(16, totalWeight);
+			buffer.putLong(24, 0);
+			mapped.force();
+			DirectBuffers.release(mapped);
+		}
+	}
+
+	/**
+	 * Opens the specified snapshot file by mapping it into memory read-only.
+	 *
+	 * @param path snapshot file
+	 *
+	 * @return list backed by the mapped file
+	 *
+	 * @throws IOException if the file can not be read or is no valid snapshot
+	 * file
+	 */
+	public static MappedWeightedSnapshot open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+				throw new IOException("File " + path + " is no weighted snapshot file.");
+			}
+			MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, 0, fileSize);
+			ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+			if (buffer.getInt(0) != MAGIC) {
+				DirectBuffers.release(mapped);
+				throw new IOException("File " + path + " is no weighted snapshot file.");
+			}
+			int version = buffer.getInt(4);
+			if (version != VERSION) {
+				DirectBuffers.release(mapped);
+				throw new IOException("Version " + version + " of snapshot file " + path + " is not supported.");
+			}
+			int size = buffer.getInt(8);
+			if (size < 0 || fileSize != HEADER_SIZE + (long) size * BYTES_PER_ELEMENT) {
+				DirectBuffers.release(mapped);
+				throw new IOException("Snapshot file " + path + " is truncated or corrupt.");
+			}
+			return new MappedWeightedSnapshot(buffer, size, buffer.getDouble(16));
+		}
+	}
+
+	private ByteBuffer buffer() {
+		ByteBuffer current = buffer;
+		if (current == null) {
+			throw new IllegalStateException("Snapshot has already been closed.");
+		}
+		return current;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * Returns the number of elements in this list.
+	 *
+	 * @return the number of elements in this list
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the weight of the element at the specified position in this
+	 * list without creating a {@link WeightedElement}.
+	 *
+	 * @param index index of the element
+	 *
+	 * @return weight of the element at the specified position
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 * @throws IllegalStateException if the snapshot has been closed
+	 */
+	@Override
+	public double getWeight(int index) {
+		checkIndex(index);
+		return buffer().getDouble(HEADER_SIZE + index * Double.BYTES);
+	}
+
+	/**
+	 * Returns the id of the element at the specified position in this list
+	 * without creating a {@link WeightedElement}.
+	 *
+	 * @param index index of the element
+	 *
+	 * @return id of the element at the specified position
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 * @throws IllegalStateException if the snapshot has been closed
+	 */
+	public long getId(int index) {
+		checkIndex(index);
+		return buffer().getLong(idsOffset + index * Long.BYTES);
+	}
+
+	/**
+	 * Returns the sum of the weights of all elements in this list.
+	 *
+	 * @return total weight of this list
+	 */
+	public double getTotalWeight() {
+		return totalWeight;
+	}
+
+	/**
+	 * Returns the element at the specified position in this list.
+	 *
+	 * @param index index of the element to return
+	 *
+	 * @return the element at the specified position in this list
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 * @throws IllegalStateException if the snapshot has been closed
+	 */
+	@Override
+	public WeightedElement<Long> get(int index) {
+		return new WeightedElement<>(getWeight(index), getId(index));
+	}
+
+	/**
+	 * Returns an iterator over the elements in this list in a random, endless
+	 * sequence. The iterator does not support {@link Iterator#remove() remove}.
+	 * Its {@link WeightedRandomizedEndlessIterator#drawIndices(int[], int, int)
+	 * bulk draws} together with {@link #getId(int)} avoid creating an element
+	 * per draw.
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 */
+	@Override
+	public WeightedRandomizedEndlessIterator<Long> randomizedIterator() {
+		return randomizedIterator(RandomSources.newRandom());
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()} using the
+	 * specified random source.
+	 *
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 */
+	public WeightedRandomizedEndlessIterator<Long> randomizedIterator(DoubleSupplier randomSource) {
+		return new WeightedRandomizedEndlessIterator<>(this, sampler, randomSource);
+	}
+
+	/**
+	 * Returns an iterable that provides an iterator like
+	 * {@link #randomizedIterator()} does. Keep in mind that the sequence of
+	 * elements provided by the iterator is endless.
+	 *
+	 * @return iterable that provides an iterator like {@link #randomizedIterator()}
+	 */
+	@Override
+	public Iterable<WeightedElement<Long>> randomized() {
+		return this::randomizedIterator;
+	}
+
+	/**
+	 * Releases the mapping of the file. Closing an already closed snapshot has
+	 * no effect. The snapshot must not be closed while another thread is
+	 * still using it.
+	 */
+	@Override
+	public void close() {
+		ByteBuffer current = buffer;
+		if (current != null) {
+			buffer = null;
+			DirectBuffers.release(current);
+		}
+	}
+
+	/**
+	 * Sampler reading the alias table from the mapped file.
+	 */
+	private class MappedSampler implements WeightedSampler {
+
+		@Override
+		public int sample(double randomValue) {
+			ByteBuffer current = buffer();
+			double scaled = randomValue * size;
+			int column = Math.min((int) scaled, size - 1);
+			if (scaled - column < current.getDouble(probabilitiesOffset + column * Double.BYTES)) {
+				return column;
+			}
+			return current.getInt(aliasesOffset + column * Integer.BYTES);
+		}
+
+		@Override
+		public void removed(int index, double weight) {
+		}
+	}
+}
@@ -0,0 +1,483 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.*;
+import java.util.function.DoubleSupplier;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * A randomized list with a weighted randomized iterator, which keeps the
+ * weights and its sampling index outside of the Java heap. Only the values of
+ * the weighted elements are stored on the heap. This is meant for very large
+ * lists, whose weights would otherwise inflate the heap and the pause times of
+ * the garbage collector.
+ * <p>
+ * The weights are stored in a direct buffer together with a binary indexed
+ * tree (see {@link DrawEngine#FENWICK_TREE}) in a second direct buffer. Draws
+ * and changes of weights cost O(log n). Drawing an index by
+ * {@link WeightedRandomizedEndlessIterator#nextIndex()} and changing a weight
+ * by {@link #setWeight(int, double)} do not allocate memory, and
+ * {@link #getWeight(int)} and {@link #getElement(int)} read an element
+ * without allocating as well. Inserting or removing an element costs as much
+ * as shifting the subsequent elements. The distribution of the randomized
+ * iterator is the same as described for
+ * {@link WeightedRandomizedEndlessIterator}.
+ * <p>
+ * Like {@link DrawEngine#FENWICK_TREE}, the tree is rebuilt from the weights
+ * once its total weight has dropped far below its largest total weight since
+ * the last rebuild, which removes rounding residue of replaced dominant
+ * weights.
+ * <p>
+ * The buffers are addressed by {@code int} offsets, so the list holds at most
+ * {@link #MAX_CAPACITY} elements, about 268 million.
+ * <p>
+ * The {@link WeightedElement} objects returned by the list are created on each
+ * access, so they are equal to the added elements, but not the same objects.
+ * The list does not permit {@code null} entries.
+ * <p>
+ * The off-heap memory is released by {@link #close()}. Afterwards every method
+ * accessing the weights throws an {@link IllegalStateException}. A list that
+ * is not closed releases its memory when it is garbage collected. Like the
+ * other lists of this library this list is not thread-safe, in particular it
+ * must not be closed while another thread is still using it.
+ *
+ * @param <E> type of values in weighted elements of this list
+ */
+public class OffHeapWeightedRandomizedList<E> extends AbstractList<WeightedElement<E>>
+		implements RandomizedList<WeightedElement<E>>, RandomAccess, Weights, AutoCloseable {
+
+	/**
+	 * Maximum number of elements, limited by the size of a direct buffer,
+	 * which also has to hold one more node of the tree.
+	 */
+	public static final int MAX_CAPACITY = Integer.MAX_VALUE / Double.BYTES - 1;
+
+	private static final int DEFAULT_CAPACITY = 1024;
+	private static final int COPY_CHUNK = 1024;
+
+	private ByteBuffer weights;
+	private ByteBuffer tree;
+	private Object[] elements;
+	private int capacity;
+	private int size;
+	private double peakWeight;
+	private boolean closed;
+	private final WeightedSampler sampler = new OffHeapSampler();
+	private double[] copyBuffer;
+
+	/**
+	 * Constructs a new empty list with a default initial capacity.
+	 */
+	public OffHeapWeightedRandomizedList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs a new empty list with the specified initial capacity. The
+	 * capacity grows when needed, but growing copies all weights, so lists
+	 * with a known size should be created with that size as capacity.
+	 *
+	 * @param initialCapacity number of elements to allocate memory for
+	 *
+	 * @throws IllegalArgumentException if the specified capacity is negative
+	 * or greater than {@link #MAX_CAPACITY}
+	 */
+	public OffHeapWeightedRandomizedList(int initialCapacity) {
+		if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Initial capacity must be in the range [0, " + MAX_CAPACITY + "], but is "
+					+ initialCapacity + ".");
+		}
+		allocate(initialCapacity);
+	}
+
+	private void allocate(int newCapacity) {
+		ByteBuffer newWeights = DirectBuffers.allocateDoubles(newCapacity);
+		ByteBuffer newTree = DirectBuffers.allocateDoubles(newCapacity + 1);
+		Object[] newElements = new Object[newCapacity];
+		if (weights != null) {
+			DoubleBuffer source = weights.asDoubleBuffer();
+			((Buffer) source).limit(size);
+			newWeights.asDoubleBuffer().put(source);
+			System.arraycopy(elements, 0, newElements, 0, size);
+			DirectBuffers.release(weights);
+			DirectBuffers.release(tree);
+		}
+		weights = newWeights;
+		tree = newTree;
+		elements = newElements;
+		capacity = newCapacity;
+		rebuildFrom(0);
+		peakWeight = sumNodes();
+	}
+
+	/**
+	 * Moves the specified number of weights like {@link System#arraycopy}
+	 * does. The weights are copied in bulk through a heap array, in the order
+	 * which keeps overlapping ranges intact.
+	 */
+	private void moveWeights(int from, int to, int length) {
+		if (copyBuffer == null) {
+			copyBuffer = new double[COPY_CHUNK];
+		}
+		DoubleBuffer values = weights.asDoubleBuffer();
+		for (int done = 0; done < length; done += COPY_CHUNK) {
+			int chunk = Math.min(COPY_CHUNK, length - done);
+			int offset = from < to ? length - done - chunk : done;
+			((Buffer) values).position(from + offset);
+			values.get(copyBuffer, 0, chunk);
+			((Buffer) values).position(to + offset);
+			values.put(copyBuffer, 0, chunk);
+		}
+	}
+
+	private double weightAt(int index) {
+		return weights.getDouble(index * Double.BYTES);
+	}
+
+	private double nodeAt(int node) {
+		return tree.getDouble(node * Double.BYTES);
+	}
+
+	private void setNode(int node, double value) {
+		tree.putDouble(node * Double.BYTES, value);
+	}
+
+	private void rebuildFrom(int index) {
+		for (int node = index + 1; node <= size; node++) {
+			double sum = weightAt(node - 1);
+			int range = node & -node;
+			for (int child = 1; child < range; child <<= 1) {
+				sum = sum + nodeAt(node - child);
+			}
+			setNode(node, sum);
+		}
+	}
+
+	/**
+	 * Rebuilds all nodes if the total weight has dropped so far below the
+	 * largest total weight since the last rebuild, that rounding residue of
+	 * replaced or removed weights may distort the remaining weights.
+	 */
+	private void removeResidue() {
+		double total = sumNodes();
+		if (total > peakWeight) {
+			peakWeight = total;
+		} else if (peakWeight > total * FenwickTree.REBUILD_RATIO) {
+			rebuildFrom(0);
+			peakWeight = sumNodes();
+		}
+	}
+
+	private double sumNodes() {
+		double sum = 0;
+		for (int node = size; node > 0; node -= node & -node) {
+			sum = sum + nodeAt(node);
+		}
+		return sum;
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("List has already been closed.");
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * Returns the number of elements in this list.
+	 *
+	 * @return the number of elements in this list
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the weight of the element at the specified position in this
+	 * list without creating a {@link WeightedElement}.
+	 *
+	 * @param index index of the element
+	 *
+	 * @return weight of the element at the specified position
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 * @throws IllegalStateException if the list has been closed
+	 */
+	@Override
+	public double getWeight(int index) {
+		checkOpen();
+		checkIndex(index);
+		return weightAt(index);
+	}
+
+	/**
+	 * Returns the value of the element at the specified position in this list
+	 * without creating a {@link WeightedElement}.
+	 *
+	 * @param index index of the element
+	 *
+	 * @return value of the element at the specified position
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 * @throws IllegalStateException if the list has been closed
+	 */
+	@SuppressWarnings("unchecked")
+	public E getElement(int index) {
+		checkOpen();
+		checkIndex(index);
+		return (E) elements[index];
+	}
+
+	/**
+	 * Replaces the weight of the element at the specified position in this
+	 * list without creating a {@link WeightedElement}. This costs O(log n),
+	 * unless the replaced weight dominated the remaining weights and the tree
+	 * is rebuilt, see the description of this class.
+	 *
+	 * @param index index of the element
+	 * @param weight new weight of the element
+	 *
+	 * @return previous weight of the element
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 * @throws IllegalArgumentException if the weight is negative or not a number
+	 * @throws IllegalStateException if the list has been closed
+	 */
+	public double setWeight(int index, double weight) {
+		if (!(weight >= 0)) {
+			throw new IllegalArgumentException("Weight must not be negative, but is " + weight + ".");
+		}
+		double previous = getWeight(index);
+		double delta = weight - previous;
+		weights.putDouble(index * Double.BYTES, weight);
+		for (int node = index + 1; node <= size; node += node & -node) {
+			setNode(node, nodeAt(node) + delta);
+		}
+		removeResidue();
+		return previous;
+	}
+
+	/**
+	 * Returns the sum of the weights of all elements in this list.
+	 *
+	 * @return total weight of this list
+	 *
+	 * @throws IllegalStateException if the list has been closed
+	 */
+	public double getTotalWeight() {
+		checkOpen();
+		return sumNodes();
+	}
+
+	/**
+	 * Returns the element at the specified position in this list.
+	 *
+	 * @param index index of the element to return
+	 *
+	 * @return the element at the specified position in this list
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 * @throws IllegalStateException if the list has been closed
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public WeightedElement<E> get(int index) {
+		return new WeightedElement<>(getWeight(index), (E) elements[index]);
+	}
+
+	/**
+	 * Replaces the element at the specified position in this list with the
+	 * specified element. This costs O(log n).
+	 *
+	 * @param index index of the element to replace
+	 * @param element element to be stored at the specified position
+	 *
+	 * @return the element previously at the specified position
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 * @throws IllegalStateException if the list has been closed
+	 */
+	@Override
+	public WeightedElement<E> set(int index, WeightedElement<E> element) {
+		WeightedElement<E> previous = get(index);
+		setWeight(index, element.getWeight());
+		elements[index] = element.getElement();
+		return previous;
+	}
+
+	/**
+	 * Inserts the specified element at the specified position in this list.
+	 * Shifts the element currently at that position (if any) and any
+	 * subsequent elements towards the end (adds one to their indices).
+	 *
+	 * @param index index at which the specified element is to be inserted
+	 * @param element element to be inserted
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index > size()})
+	 * @throws NullPointerException if the specified element is null
+	 * @throws IllegalStateException if the list has been closed or already
+	 * holds {@link #MAX_CAPACITY} elements
+	 */
+	@Override
+	public void add(int index, WeightedElement<E> element) {
+		checkOpen();
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		Objects.requireNonNull(element, "Element must not be null.");
+		if (size == capacity) {
+			if (capacity == MAX_CAPACITY) {
+				throw new IllegalStateException("List can not hold more than " + MAX_CAPACITY + " elements.");
+			}
+			allocate(Math.min(Math.max(capacity + (capacity >> 1), DEFAULT_CAPACITY), MAX_CAPACITY));
+		}
+		moveWeights(index, index + 1, size - index);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		weights.putDouble(index * Double.BYTES, element.getWeight());
+		elements[index] = element.getElement();
+		size++;
+		modCount++;
+		rebuildFrom(index);
+		removeResidue();
+	}
+
+	/**
+	 * Removes the element at the specified position in this list. Shifts any
+	 * subsequent elements towards the beginning (subtracts one from their
+	 * indices).
+	 *
+	 * @param index the index of the element to be removed
+	 *
+	 * @return the element that was removed from the list
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 * @throws IllegalStateException if the list has been closed
+	 */
+	@Override
+	public WeightedElement<E> remove(int index) {
+		WeightedElement<E> removed = get(index);
+		moveWeights(index + 1, index, size - index - 1);
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+		elements[size] = null;
+		modCount++;
+		rebuildFrom(index);
+		removeResidue();
+		return removed;
+	}
+
+	/**
+	 * Removes all of the elements from this list. The memory stays allocated
+	 * until the list is closed.
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+		peakWeight = 0;
+		modCount++;
+	}
+
+	/**
+	 * Returns an iterator over the elements in this list in a random, endless
+	 * sequence. The iterator draws the elements from the current weights of
+	 * this list, so it reflects all modifications of this list. See
+	 * {@link WeightedRandomizedList#randomizedIterator()} for details.
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 */
+	@Override
+	public WeightedRandomizedEndlessIterator<E> randomizedIterator() {
+		return randomizedIterator(RandomSources.newRandom());
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()} using the
+	 * specified random source.
+	 *
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 */
+	public WeightedRandomizedEndlessIterator<E> randomizedIterator(DoubleSupplier randomSource) {
+		return new WeightedRandomizedEndlessIterator<>(this, sampler, randomSource);
+	}
+
+	/**
+	 * Returns an iterable that provides an iterator like
+	 * {@link #randomizedIterator()} does. Keep in mind that the sequence of
+	 * elements provided by the iterator is endless.
+	 *
+	 * @return iterable that provides an iterator like {@link #randomizedIterator()}
+	 */
+	@Override
+	public Iterable<WeightedElement<E>> randomized() {
+		return this::randomizedIterator;
+	}
+
+	/**
+	 * Releases the off-heap memory of this list. Closing an already closed list
+	 * has no effect.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		size = 0;
+		elements = new Object[0];
+		DirectBuffers.release(weights);
+		DirectBuffers.release(tree);
+		weights = null;
+		tree = null;
+	}
+
+	/**
+	 * Sampler descending the tree in the direct buffer. The tree is maintained
+	 * by the list itself, so removals through the randomized iterator need no
+	 * further action.
+	 */
+	private class OffHeapSampler implements WeightedSampler {
+
+		@Override
+		public int sample(double randomValue) {
+			double target = randomValue * getTotalWeight();
+			int position = 0;
+			for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+				int node = position + step;
+				if (node <= size) {
+					double nodeWeight = nodeAt(node);
+					if (nodeWeight <= target) {
+						target = target - nodeWeight;
+						position = node;
+					}
+				}
+			}
+			return Math.min(position, size - 1);
+		}
+
+		@Override
+		public void removed(int index, double weight) {
+		}
+	}
+}
@@ -0,0 +1,273 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleSupplier;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * Randomized iterator over a {@link ConcurrentWeightedRandomizedList}, whose
+ * draws are made in advance by a background thread. The background thread
+ * fills a ring buffer with drawn indices, so a call to {@link #next()} usually
+ * only takes the next index from the buffer, without drawing or generating a
+ * random number. The distribution of the elements is the same as described
+ * for {@link WeightedRandomizedEndlessIterator}.
+ * <p>
+ * The ring buffer has a single producer, the background thread, and may have
+ * many consumers, as the iterator can be shared by several threads. Consumers
+ * claim an index by a compare-and-set of the head of the buffer, so neither
+ * producer nor consumers lock. Whenever half of the buffer has been consumed,
+ * the background thread is woken up to refill it. Otherwise it sleeps until
+ * the list publishes a new snapshot, so an idle iterator costs no CPU time.
+ * <p>
+ * Each buffer belongs to one {@link ConcurrentWeightedRandomizedList#snapshot()
+ * snapshot} of the list. Once the list is modified, the buffered indices are
+ * discarded and the background thread fills a new buffer for the new
+ * snapshot. Until then, and whenever the buffer is empty, {@code next()} falls
+ * back to drawing directly from the latest snapshot with the
+ * {@link RandomSources#threadLocal() thread-local random source}.
+ * <p>
+ * The background thread is a daemon thread, which runs until the iterator is
+ * {@link #close() closed}. It does not reference the iterator, so an iterator
+ * which is not closed can still be garbage collected, and its background
+ * thread terminates afterwards. The iterator does not support
+ * {@link Iterator#remove() remove}.
+ *
+ * @see ConcurrentWeightedRandomizedList#prefetchingIterator(int)
+ *
+ * @param <E> type of values in weighted elements of the list
+ */
+public class PrefetchingRandomizedIterator<E> implements Iterator<WeightedElement<E>>, AutoCloseable {
+
+	private static final DoubleSupplier FALLBACK_SOURCE = RandomSources.threadLocal();
+	private static final ReferenceQueue<PrefetchingRandomizedIterator<?>> ABANDONED = new ReferenceQueue<>();
+	private static final Set<OwnerReference> OWNERS = ConcurrentHashMap.newKeySet();
+	private static Thread reaper;
+
+	private final ConcurrentWeightedRandomizedList<E> list;
+	private final Producer<E> producer;
+	private final OwnerReference owner;
+	private final LongAdder fallbackDraws = new LongAdder();
+
+	/**
+	 * Indices drawn from one snapshot. Slot {@code i % capacity} holds the
+	 * index number {@code i}, which is valid while {@code head <= i < tail}.
+	 * The producer writes slots only behind the tail and publishes them by
+	 * advancing the tail. It overwrites a slot only after the head has passed
+	 * it, so a consumer whose compare-and-set of the head succeeds read a
+	 * valid index.
+	 */
+	private static final class RingBuffer<E> {
+
+		private final FrozenWeightedRandomizedList<E> snapshot;
+		private final int[] slots;
+		private final AtomicLong head = new AtomicLong();
+		private volatile long tail;
+
+		private RingBuffer(FrozenWeightedRandomizedList<E> snapshot, int capacity) {
+			this.snapshot = snapshot;
+			this.slots = new int[capacity];
+		}
+	}
+
+	/**
+	 * State and loop of the background thread. It is kept apart from the
+	 * iterator, so the background thread does not keep the iterator reachable.
+	 */
+	private static final class Producer<E> implements Runnable {
+
+		private final ConcurrentWeightedRandomizedList<E> list;
+		private final int capacity;
+		private final Thread thread;
+		private final Runnable wakeUp;
+		private volatile RingBuffer<E> buffer;
+		private volatile boolean closed;
+
+		private Producer(ConcurrentWeightedRandomizedList<E> list, int capacity) {
+			this.list = list;
+			this.capacity = capacity;
+			buffer = new RingBuffer<>(list.snapshot(), capacity);
+			thread = new Thread(this, "prefetching-randomized-iterator");
+			thread.setDaemon(true);
+			wakeUp = () -> LockSupport.unpark(thread);
+		}
+
+		private void close() {
+			closed = true;
+			LockSupport.unpark(thread);
+		}
+
+		@Override
+		public void run() {
+			list.addSnapshotListener(wakeUp);
+			try {
+				SplittableRandom random = new SplittableRandom();
+				int mask = capacity - 1;
+				while (!closed) {
+					FrozenWeightedRandomizedList<E> current = list.snapshot();
+					RingBuffer<E> ring = buffer;
+					if (ring.snapshot != current) {
+						ring = new RingBuffer<>(current, capacity);
+						buffer = ring;
+					}
+					if (!current.isEmpty()) {
+						long tail = ring.tail;
+						long end = ring.head.get() + capacity;
+						for (long position = tail; position < end; position++) {
+							ring.slots[(int) position & mask] = current.sample(random.nextDouble());
+						}
+						ring.tail = end;
+					}
+					LockSupport.park(this);
+				}
+			} finally {
+				list.removeSnapshotListener(wakeUp);
+			}
+		}
+	}
+
+	/**
+	 * Weak reference to an iterator, which closes the producer of the
+	 * iterator once the iterator has been garbage collected.
+	 */
+	private static final class OwnerReference extends WeakReference<PrefetchingRandomizedIterator<?>> {
+
+		private final Producer<?> producer;
+
+		private OwnerReference(PrefetchingRandomizedIterator<?> iterator, Producer<?> producer) {
+			super(iterator, ABANDONED);
+			this.producer = producer;
+		}
+	}
+
+	/**
+	 * Constructs an iterator over the specified list, which buffers the
+	 * specified number of drawn indices, and starts its background thread.
+	 *
+	 * @param list source of drawn elements
+	 * @param capacity number of buffered indices, rounded up to a power of two
+	 *
+	 * @throws IllegalArgumentException if the capacity is lower than two or
+	 * greater than 2<sup>30</sup>
+	 */
+	public PrefetchingRandomizedIterator(ConcurrentWeightedRandomizedList<E> list, int capacity) {
+		if (capacity < 2 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Capacity must be in the range [2, 2^30], but is " + capacity + ".");
+		}
+		this.list = list;
+		producer = new Producer<>(list, Integer.highestOneBit(capacity - 1) << 1);
+		owner = new OwnerReference(this, producer);
+		OWNERS.add(owner);
+		startReaper();
+		producer.thread.start();
+	}
+
+	/**
+	 * Starts the daemon thread closing the producers of iterators which have
+	 * been garbage collected without being closed, unless it is running
+	 * already.
+	 */
+	private static synchronized void startReaper() {
+		if (reaper != null) {
+			return;
+		}
+		reaper = new Thread(() -> {
+			while (true) {
+				try {
+					OwnerReference reference = (OwnerReference) ABANDONED.remove();
+					OWNERS.remove(reference);
+					reference.producer.close();
+				} catch (InterruptedException e) {
+					// keep waiting, the thread serves all iterators
+				}
+			}
+		}, "prefetching-randomized-iterator-reaper");
+		reaper.setDaemon(true);
+		reaper.start();
+	}
+
+	/**
+	 * Returns the number of buffered indices.
+	 *
+	 * @return capacity of the ring buffer
+	 */
+	public int getCapacity() {
+		return producer.capacity;
+	}
+
+	/**
+	 * Returns the number of indices currently buffered for the latest
+	 * snapshot.
+	 */
+	int getBuffered() {
+		RingBuffer<E> ring = producer.buffer;
+		return ring.snapshot == list.snapshot() ? (int) (ring.tail - ring.head.get()) : 0;
+	}
+
+	/**
+	 * Returns the number of draws which could not be taken from the buffer.
+	 */
+	long getFallbackDraws() {
+		return fallbackDraws.sum();
+	}
+
+	/**
+	 * Returns the background thread.
+	 */
+	Thread getProducerThread() {
+		return producer.thread;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return !list.isEmpty();
+	}
+
+	/**
+	 * Returns the next randomly drawn element, taken from the buffer if
+	 * possible.
+	 *
+	 * @return next random element
+	 *
+	 * @throws java.util.NoSuchElementException if the list is empty
+	 */
+	@Override
+	public WeightedElement<E> next() {
+		FrozenWeightedRandomizedList<E> current = list.snapshot();
+		RingBuffer<E> ring = producer.buffer;
+		int capacity = producer.capacity;
+		if (ring.snapshot == current) {
+			int mask = capacity - 1;
+			for (long head = ring.head.get(); head < ring.tail; head = ring.head.get()) {
+				int index = ring.slots[(int) head & mask];
+				if (ring.head.compareAndSet(head, head + 1)) {
+					if (ring.tail - head - 1 == capacity >> 1) {
+						LockSupport.unpark(producer.thread);
+					}
+					return current.get(index);
+				}
+			}
+		}
+		LockSupport.unpark(producer.thread);
+		fallbackDraws.increment();
+		return current.get(current.sample(FALLBACK_SOURCE.getAsDouble()));
+	}
+
+	/**
+	 * Stops the background thread. Afterwards all draws are made directly.
+	 */
+	@Override
+	public void close() {
+		producer.close();
+		OWNERS.remove(owner);
+		owner.clear();
+	}
+}
@@ -0,0 +1,57 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Factory methods for random sources used by randomized iterators. A random
+ * source is a {@link DoubleSupplier} delivering uniformly distributed values
+ * in the range {@code [0, 1)}, so any random number generator can be used,
+ * e.g. {@code new SplittableRandom()::nextDouble}.
+ * <p>
+ * A {@link Random} serializes concurrent accesses on its seed, so a randomized
+ * iterator shared by several threads should use the
+ * {@link #threadLocal() thread-local} random source.
+ */
+public final class RandomSources {
+
+	private RandomSources() {
+	}
+
+	/**
+	 * Returns a random source using a new {@link Random}. This is the random
+	 * source of randomized iterators if none is specified.
+	 *
+	 * @return random source with its own random number generator
+	 */
+	public static DoubleSupplier newRandom() {
+		return new Random()::nextDouble;
+	}
+
+	/**
+	 * Returns a random source using a {@link SplittableRandom} initialized
+	 * with the specified seed, which delivers the same sequence of values for
+	 * the same seed. The returned random source must not be used by several
+	 * threads concurrently.
+	 *
+	 * @param seed initial seed
+	 *
+	 * @return random source with reproducible sequence of values
+	 */
+	public static DoubleSupplier seeded(long seed) {
+		return new SplittableRandom(seed)::nextDouble;
+	}
+
+	/**
+	 * Returns a random source using the {@link ThreadLocalRandom} of the
+	 * calling thread. It can be used by several threads concurrently without
+	 * sharing any mutable state.
+	 *
+	 * @return random source for concurrent use
+	 */
+	public static DoubleSupplier threadLocal() {
+		return () -> ThreadLocalRandom.current().nextDouble();
+	}
+}
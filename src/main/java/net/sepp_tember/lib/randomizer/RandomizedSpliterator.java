@@ -0,0 +1,102 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * Spliterator delivering a fixed number of elements drawn from a frozen list.
+ * <p>
+ * The draws are divided into blocks of {@value #BLOCK_SIZE} draws. Each block
+ * uses its own {@link SplittableRandom}, which is derived from the seed and the
+ * number of the block only. Splits are aligned to block boundaries, so the
+ * i-th drawn element depends on the seed and i, but not on how or how often
+ * the spliterator was split. A stream with the same seed thus yields the same
+ * elements, whether it is processed sequentially or in parallel.
+ */
+class RandomizedSpliterator<E> implements Spliterator<WeightedElement<E>> {
+
+	static final int BLOCK_SIZE = 1024;
+	private static final long BLOCK_SEED_INCREMENT = 0xBF58476D1CE4E5B9L;
+
+	private final FrozenWeightedRandomizedList<E> list;
+	private final long seed;
+	private long index;
+	private final long fence;
+	private SplittableRandom random;
+
+	/**
+	 * Constructs spliterator for the draws in the range {@code [origin, fence)}.
+	 *
+	 * @param list source of drawn elements
+	 * @param seed seed of all draws
+	 * @param origin index of first draw
+	 * @param fence index after last draw
+	 */
+	RandomizedSpliterator(FrozenWeightedRandomizedList<E> list, long seed, long origin, long fence) {
+		this.list = list;
+		this.seed = seed;
+		this.index = origin;
+		this.fence = fence;
+	}
+
+	/**
+	 * Returns the random generator for the current index, which is positioned
+	 * at the draw of the index within its block.
+	 */
+	private SplittableRandom random() {
+		long offset = index % BLOCK_SIZE;
+		if (random == null || offset == 0) {
+			random = new SplittableRandom(seed + (index / BLOCK_SIZE) * BLOCK_SEED_INCREMENT).split();
+			for (long skipped = 0; skipped < offset; skipped++) {
+				random.nextDouble();
+			}
+		}
+		return random;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super WeightedElement<E>> action) {
+		if (index >= fence) {
+			return false;
+		}
+		double randomValue = random().nextDouble();
+		index++;
+		action.accept(list.get(list.sample(randomValue)));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super WeightedElement<E>> action) {
+		while (index < fence) {
+			double randomValue = random().nextDouble();
+			index++;
+			action.accept(list.get(list.sample(randomValue)));
+		}
+	}
+
+	@Override
+	public Spliterator<WeightedElement<E>> trySplit() {
+		long middle = ((index + fence) >>> 1) / BLOCK_SIZE * BLOCK_SIZE;
+		if (middle <= index) {
+			return null;
+		}
+		RandomizedSpliterator<E> prefix = new RandomizedSpliterator<>(list, seed, index, middle);
+		prefix.random = random;
+		index = middle;
+		random = null;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return fence - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+	}
+}
@@ -0,0 +1,30 @@
+package net.sepp_tember.lib.randomizer;
+
+/**
+ * Callback notified about the draws of randomized iterators, e.g. to feed a
+ * metrics library. A listener is set by
+ * {@link WeightedRandomizedList#setSamplingListener(SamplingListener)}.
+ * {@link SamplingMetrics} is a ready-made implementation.
+ * <p>
+ * The methods are called on the drawing thread for every single draw, so they
+ * have to be fast and, if the iterators are shared by several threads,
+ * thread-safe.
+ */
+public interface SamplingListener {
+
+	/**
+	 * Called after an element has been drawn.
+	 *
+	 * @param index index of the drawn element in the list at the time of the
+	 * draw
+	 */
+	void drawn(int index);
+
+	/**
+	 * Called when the data used to draw elements, i.e. the total weight, the
+	 * alias table or the tree of weights, had to be rebuilt from all weights
+	 * before a draw. The default implementation does nothing.
+	 */
+	default void samplerRebuilt() {
+	}
+}
@@ -0,0 +1,142 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * Sampling listener counting the draws of each element of a list, which
+ * allows to check whether the observed distribution matches the weights. All
+ * counters are {@link LongAdder}s, so counting scales with the number of
+ * drawing threads. The metrics can be published by JMX, e.g. by
+ * <pre>{@code
+ *     SamplingMetrics metrics = new SamplingMetrics(list);
+ *     list.setSamplingListener(metrics);
+ *     ManagementFactory.getPlatformMBeanServer().registerMBean(metrics,
+ *             new ObjectName("net.sepp_tember.lib.randomizer:type=SamplingMetrics,name=myList"));
+ * }</pre>
+ * <p>
+ * The counters are kept per index. If elements are inserted into or removed
+ * from the list, the counters of subsequent elements belong to other elements
+ * afterwards, so the metrics should be {@link #reset()} after such
+ * modifications.
+ */
+public class SamplingMetrics implements SamplingListener, SamplingMetricsMXBean {
+
+	private final List<? extends WeightedElement<?>> list;
+	private final LongAdder totalDraws = new LongAdder();
+	private final LongAdder rebuilds = new LongAdder();
+	private volatile LongAdder[] hits = new LongAdder[0];
+	private volatile long startNanos = System.nanoTime();
+
+	/**
+	 * Constructs metrics for draws from the specified list. The list is used
+	 * to compute the expected probabilities.
+	 *
+	 * @param list list whose draws are counted
+	 */
+	public SamplingMetrics(List<? extends WeightedElement<?>> list) {
+		this.list = list;
+	}
+
+	@Override
+	public void drawn(int index) {
+		totalDraws.increment();
+		LongAdder[] counters = hits;
+		if (index >= counters.length) {
+			counters = grow(index);
+		}
+		counters[index].increment();
+	}
+
+	private synchronized LongAdder[] grow(int index) {
+		LongAdder[] counters = hits;
+		if (index >= counters.length) {
+			int oldLength = counters.length;
+			counters = Arrays.copyOf(counters, Math.max(index + 1, oldLength + (oldLength >> 1)));
+			for (int position = oldLength; position < counters.length; position++) {
+				counters[position] = new LongAdder();
+			}
+			hits = counters;
+		}
+		return counters;
+	}
+
+	@Override
+	public void samplerRebuilt() {
+		rebuilds.increment();
+	}
+
+	@Override
+	public long getTotalDraws() {
+		return totalDraws.sum();
+	}
+
+	@Override
+	public double getDrawsPerSecond() {
+		double seconds = (System.nanoTime() - startNanos) / 1e9;
+		return seconds > 0 ? getTotalDraws() / seconds : 0;
+	}
+
+	@Override
+	public long getRebuildCount() {
+		return rebuilds.sum();
+	}
+
+	/**
+	 * Returns how often the element at the specified index was drawn.
+	 *
+	 * @param index index of element
+	 *
+	 * @return number of draws of the element
+	 */
+	public long getHitCount(int index) {
+		LongAdder[] counters = hits;
+		return index >= 0 && index < counters.length ? counters[index].sum() : 0;
+	}
+
+	/**
+	 * Returns the differences between the observed and the expected
+	 * probabilities of all elements of the list. The observed probability of an
+	 * element is its number of draws divided by the total number of draws, the
+	 * expected one is its weight divided by the total weight.
+	 *
+	 * @return observed minus expected probability per index of the list
+	 */
+	public double[] getProbabilityDeviations() {
+		int size = list.size();
+		double[] deviations = new double[size];
+		double totalWeight = 0;
+		for (int index = 0; index < size; index++) {
+			totalWeight = totalWeight + list.get(index).getWeight();
+		}
+		long draws = getTotalDraws();
+		for (int index = 0; index < size; index++) {
+			double observed = draws > 0 ? (double) getHitCount(index) / draws : 0;
+			double expected = totalWeight > 0 ? list.get(index).getWeight() / totalWeight : 0;
+			deviations[index] = observed - expected;
+		}
+		return deviations;
+	}
+
+	@Override
+	public double getMaxProbabilityDeviation() {
+		double max = 0;
+		for (double deviation : getProbabilityDeviations()) {
+			max = Math.max(max, Math.abs(deviation));
+		}
+		return max;
+	}
+
+	@Override
+	public void reset() {
+		totalDraws.reset();
+		rebuilds.reset();
+		for (LongAdder counter : hits) {
+			counter.reset();
+		}
+		startNanos = System.nanoTime();
+	}
+}
@@ -0,0 +1,44 @@
+package net.sepp_tember.lib.randomizer;
+
+/**
+ * Management interface of {@link SamplingMetrics}, which allows to monitor
+ * the metrics by JMX.
+ */
+public interface SamplingMetricsMXBean {
+
+	/**
+	 * Returns the number of draws since creation or the last reset.
+	 *
+	 * @return number of draws
+	 */
+	long getTotalDraws();
+
+	/**
+	 * Returns the average number of draws per second since creation or the
+	 * last reset.
+	 *
+	 * @return draws per second
+	 */
+	double getDrawsPerSecond();
+
+	/**
+	 * Returns the number of rebuilds of the sampling data since creation or
+	 * the last reset.
+	 *
+	 * @return number of rebuilds
+	 */
+	long getRebuildCount();
+
+	/**
+	 * Returns the largest absolute difference between the observed and the
+	 * expected probability of any element of the list.
+	 *
+	 * @return largest deviation of observed from expected probabilities
+	 */
+	double getMaxProbabilityDeviation();
+
+	/**
+	 * Resets all counters to zero.
+	 */
+	void reset();
+}
@@ -0,0 +1,295 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Front-end serving draws from a randomized list to many threads. Instead of
+ * sharing one randomized iterator between threads, which is not safe, or
+ * creating one iterator per thread, which may be expensive, the threads queue
+ * their requests and receive the drawn elements through a
+ * {@link CompletableFuture}.
+ * <p>
+ * A single worker thread owns the only randomized iterator of the list. It
+ * takes all queued requests at once and serves them as one batch. If the
+ * iterator is a {@link WeightedRandomizedEndlessIterator}, the indices for
+ * the whole batch are drawn by one call to
+ * {@link WeightedRandomizedEndlessIterator#drawIndices(int[], int, int)
+ * drawIndices}. So the threads requesting draws only append to a lock-free
+ * queue, and the costs of drawing are shared by all requests of a batch.
+ * <p>
+ * The futures are completed by the worker thread, so dependent actions
+ * registered by the non-async methods of {@code CompletableFuture} run on the
+ * worker thread and delay the next batch. Expensive actions should use the
+ * async methods instead.
+ * <p>
+ * A batch draws at most {@link #MAX_BATCH_DRAWS} elements, so large requests
+ * are served in parts over several batches and do not hold up small ones for
+ * long. If serving a request fails, even by an {@link Error} like an
+ * {@link OutOfMemoryError}, only the futures of the affected requests are
+ * completed exceptionally and the worker thread keeps serving. Should the
+ * worker thread terminate unexpectedly anyway, the service closes itself and
+ * fails all pending requests.
+ * <p>
+ * The list must not be modified while the service is open.
+ *
+ * @param <E> type of elements in the list
+ */
+public class SamplingService<E> implements AutoCloseable {
+
+	static final int MAX_BATCH_SIZE = 1024;
+
+	/**
+	 * Maximum number of elements drawn in one batch.
+	 */
+	static final int MAX_BATCH_DRAWS = 1 << 16;
+
+	/**
+	 * Maximum number of draws of a single request, which is the maximum
+	 * length of an array.
+	 */
+	public static final int MAX_COUNT = Integer.MAX_VALUE - 8;
+
+	private final RandomizedList<E> list;
+	private final Queue<Request<E>> requests = new ConcurrentLinkedQueue<>();
+	private final Thread worker;
+	private volatile boolean closed;
+	private Iterator<E> iterator;
+	private int[] indices = new int[0];
+
+	private static final class Request<E> {
+
+		private final int count;
+		private final CompletableFuture<List<E>> future = new CompletableFuture<>();
+		private Object[] drawn;
+		private int filled;
+
+		private Request(int count) {
+			this.count = count;
+		}
+
+		/**
+		 * Adds the specified drawn element and completes the future once all
+		 * draws of this request have been made.
+		 */
+		private void add(Object element) {
+			drawn[filled++] = element;
+			if (filled == count) {
+				@SuppressWarnings("unchecked")
+				List<E> elements = (List<E>) Arrays.asList(drawn);
+				drawn = null;
+				future.complete(elements);
+			}
+		}
+	}
+
+	/**
+	 * Constructs a service drawing from the specified list and starts its
+	 * worker thread, which is a daemon thread.
+	 *
+	 * @param list source of drawn elements
+	 */
+	public SamplingService(RandomizedList<E> list) {
+		this(list, runnable -> {
+			Thread thread = new Thread(runnable, "sampling-service");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Constructs a service drawing from the specified list and starts its
+	 * worker thread created by the specified factory.
+	 *
+	 * @param list source of drawn elements
+	 * @param threadFactory factory of the worker thread
+	 *
+	 * @throws NullPointerException if the list or the thread factory is null
+	 */
+	public SamplingService(RandomizedList<E> list, ThreadFactory threadFactory) {
+		this.list = Objects.requireNonNull(list, "List must not be null.");
+		worker = threadFactory.newThread(this::work);
+		worker.start();
+	}
+
+	/**
+	 * Requests a single draw.
+	 *
+	 * @return future completed with the drawn element, or exceptionally with a
+	 * {@link NoSuchElementException} if the list is empty
+	 *
+	 * @throws IllegalStateException if the service has been closed
+	 */
+	public CompletableFuture<E> draw() {
+		return draw(1).thenApply(drawn -> drawn.get(0));
+	}
+
+	/**
+	 * Requests the specified number of draws.
+	 *
+	 * @param count number of draws
+	 *
+	 * @return future completed with the drawn elements in order of drawing,
+	 * or exceptionally with a {@link NoSuchElementException} if the list is
+	 * empty
+	 *
+	 * @throws IllegalArgumentException if count is negative or greater than
+	 * {@link #MAX_COUNT}
+	 * @throws IllegalStateException if the service has been closed
+	 */
+	public CompletableFuture<List<E>> draw(int count) {
+		if (count < 0 || count > MAX_COUNT) {
+			throw new IllegalArgumentException("Count must be in the range [0, " + MAX_COUNT + "], but is " + count + ".");
+		}
+		if (closed) {
+			throw new IllegalStateException("Sampling service has been closed.");
+		}
+		if (count == 0) {
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		Request<E> request = new Request<>(count);
+		requests.offer(request);
+		if (closed && requests.remove(request)) {
+			request.future.completeExceptionally(new IllegalStateException("Sampling service has been closed."));
+		} else {
+			LockSupport.unpark(worker);
+		}
+		return request.future;
+	}
+
+	/**
+	 * Closes this service. Requests queued before are still served, then the
+	 * worker thread terminates. This method waits for the worker thread to
+	 * terminate unless it is called by the worker thread itself.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		LockSupport.unpark(worker);
+		if (Thread.currentThread() != worker) {
+			boolean interrupted = false;
+			while (worker.isAlive()) {
+				try {
+					worker.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void work() {
+		List<Request<E>> batch = new ArrayList<>();
+		try {
+			while (true) {
+				boolean wasClosed = closed;
+				while (batch.size() < MAX_BATCH_SIZE) {
+					Request<E> request = requests.poll();
+					if (request == null) {
+						break;
+					}
+					batch.add(request);
+				}
+				if (!batch.isEmpty()) {
+					serve(batch);
+				} else if (wasClosed) {
+					return;
+				} else {
+					LockSupport.park(this);
+				}
+			}
+		} catch (Throwable e) {
+			closed = true;
+			fail(batch, e);
+			for (Request<E> request = requests.poll(); request != null; request = requests.poll()) {
+				request.future.completeExceptionally(e);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Serves up to {@link #MAX_BATCH_DRAWS} draws of the specified requests
+	 * in order and removes the completed ones from the batch. A request which
+	 * could not be served completely stays in the batch for the next one.
+	 */
+	private void serve(List<Request<E>> batch) {
+		for (Request<E> request : batch) {
+			if (request.drawn == null && !request.future.isDone()) {
+				try {
+					request.drawn = new Object[request.count];
+				} catch (Throwable e) {
+					request.future.completeExceptionally(e);
+				}
+			}
+		}
+		batch.removeIf(request -> request.future.isDone());
+		try {
+			Iterator<E> current = nextIterator();
+			if (current instanceof WeightedRandomizedEndlessIterator) {
+				serveIndices((WeightedRandomizedEndlessIterator<?>) current, batch);
+			} else {
+				int budget = MAX_BATCH_DRAWS;
+				for (Request<E> request : batch) {
+					for (; budget > 0 && request.filled < request.count; budget--) {
+						request.add(nextIterator().next());
+					}
+				}
+			}
+		} catch (Throwable e) {
+			fail(batch, e);
+		}
+		batch.removeIf(request -> request.future.isDone());
+	}
+
+	private static <E> void fail(List<Request<E>> batch, Throwable e) {
+		for (Request<E> request : batch) {
+			request.drawn = null;
+			request.future.completeExceptionally(e);
+		}
+		batch.clear();
+	}
+
+	/**
+	 * Returns the randomized iterator of the list, which is created anew once
+	 * a finite iterator like the one of {@link UniformRandomizedList} is
+	 * exhausted.
+	 */
+	private Iterator<E> nextIterator() {
+		if (iterator == null || !iterator.hasNext()) {
+			iterator = list.randomizedIterator();
+			if (!iterator.hasNext()) {
+				throw new NoSuchElementException("Can not draw from empty list.");
+			}
+		}
+		return iterator;
+	}
+
+	/**
+	 * Draws the indices for up to {@link #MAX_BATCH_DRAWS} draws of the
+	 * requests of the batch at once and adds the elements of these indices to
+	 * the requests in order.
+	 */
+	private void serveIndices(WeightedRandomizedEndlessIterator<?> iterator, List<Request<E>> batch) {
+		int total = 0;
+		for (Request<E> request : batch) {
+			total = total + Math.min(request.count - request.filled, MAX_BATCH_DRAWS - total);
+		}
+		if (indices.length < total) {
+			indices = new int[Math.min(Math.max(total, indices.length * 2), MAX_BATCH_DRAWS)];
+		}
+		iterator.drawIndices(indices, 0, total);
+		int position = 0;
+		for (Request<E> request : batch) {
+			while (position < total && request.filled < request.count) {
+				request.add(list.get(indices[position++]));
+			}
+		}
+	}
+}
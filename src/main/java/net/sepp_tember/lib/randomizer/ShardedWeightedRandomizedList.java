@@ -0,0 +1,525 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.Predicate;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * A thread-safe randomized list with a weighted randomized iterator, which
+ * partitions its elements into several shards. Each shard keeps its weights in
+ * a binary indexed tree (see {@link DrawEngine#FENWICK_TREE}) and is guarded by
+ * its own lock. A draw first picks a shard with a probability proportional to
+ * the total weight of the shard and then draws an element within that shard.
+ * So the distribution of the randomized iterator is the same as described for
+ * {@link WeightedRandomizedEndlessIterator}.
+ * <p>
+ * Modifications of different shards never contend with each other, and draws
+ * only contend with modifications of the drawn shard. Elements are added to a
+ * randomly chosen shard, so the shards stay balanced. This makes the list
+ * suitable for many threads drawing and modifying concurrently. If the list is
+ * mostly read, {@link ConcurrentWeightedRandomizedList} is the better choice.
+ * <p>
+ * The order of the list is the concatenation of the shards, i.e. all elements
+ * of the first shard, then all elements of the second shard and so on. Index
+ * based methods locate the shard by the current sizes of the shards. So like
+ * the size of a {@link java.util.concurrent.ConcurrentHashMap}, indices are
+ * only meaningful while no other thread adds or removes elements. The
+ * iterators returned by {@link #iterator()} and {@link #listIterator(int)}
+ * work on a copy of the list and do not support modifications, elements are
+ * removed in bulk by {@link #removeAll(Collection)},
+ * {@link #retainAll(Collection)} and {@link #removeIf(Predicate)} instead.
+ *
+ * @param <E> type of values in weighted elements of this list
+ */
+public class ShardedWeightedRandomizedList<E> extends AbstractList<WeightedElement<E>>
+		implements RandomizedList<WeightedElement<E>>, RandomAccess {
+
+	private final Shard<E>[] shards;
+	private final AtomicLongArray shardWeights;
+
+	/**
+	 * Constructs a new empty list with one shard per available processor.
+	 */
+	public ShardedWeightedRandomizedList() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a new empty list with the specified number of shards.
+	 *
+	 * @param shardCount number of shards
+	 *
+	 * @throws IllegalArgumentException if the number of shards is lower than one
+	 */
+	@SuppressWarnings("unchecked")
+	public ShardedWeightedRandomizedList(int shardCount) {
+		if (shardCount < 1) {
+			throw new IllegalArgumentException("Number of shards must be at least 1, but is " + shardCount + ".");
+		}
+		shards = (Shard<E>[]) new Shard<?>[shardCount];
+		for (int shard = 0; shard < shardCount; shard++) {
+			shards[shard] = new Shard<>();
+		}
+		shardWeights = new AtomicLongArray(shardCount);
+	}
+
+	private static final class Shard<E> {
+
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+		private final List<WeightedElement<E>> elements = new ArrayList<>();
+		private final FenwickTree tree = new FenwickTree(elements);
+		private volatile int size;
+	}
+
+	/**
+	 * Returns the number of shards of this list.
+	 *
+	 * @return number of shards
+	 */
+	public int getShardCount() {
+		return shards.length;
+	}
+
+	/**
+	 * Returns the sum of the weights of all elements in this list.
+	 *
+	 * @return total weight of this list
+	 */
+	public double getTotalWeight() {
+		double sum = 0;
+		for (int shard = 0; shard < shards.length; shard++) {
+			sum = sum + shardWeight(shard);
+		}
+		return sum;
+	}
+
+	private double shardWeight(int shard) {
+		return Double.longBitsToDouble(shardWeights.get(shard));
+	}
+
+	/**
+	 * Publishes size and total weight of the specified shard. Must be called
+	 * while holding the write lock of the shard.
+	 */
+	private void publish(int shardIndex) {
+		Shard<E> shard = shards[shardIndex];
+		shard.size = shard.elements.size();
+		shardWeights.set(shardIndex, Double.doubleToRawLongBits(shard.tree.getTotalWeight()));
+	}
+
+	/**
+	 * Returns the number of elements in this list.
+	 *
+	 * @return the number of elements in this list
+	 */
+	@Override
+	public int size() {
+		int size = 0;
+		for (Shard<E> shard : shards) {
+			size = size + shard.size;
+		}
+		return size;
+	}
+
+	/**
+	 * Returns shard and index within shard of the specified index as array.
+	 */
+	private int[] locate(int index, boolean inclusiveEnd) {
+		if (index >= 0) {
+			int offset = index;
+			for (int shard = 0; shard < shards.length; shard++) {
+				int size = shards[shard].size;
+				if (offset < size || (inclusiveEnd && offset == size && shard == shards.length - 1)) {
+					return new int[] {shard, offset};
+				}
+				offset = offset - size;
+			}
+		}
+		throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+	}
+
+	/**
+	 * Returns the element at the specified position in this list.
+	 *
+	 * @param index index of the element to return
+	 *
+	 * @return the element at the specified position in this list
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 */
+	@Override
+	public WeightedElement<E> get(int index) {
+		int[] location = locate(index, false);
+		Lock lock = shards[location[0]].lock.readLock();
+		lock.lock();
+		try {
+			return shards[location[0]].elements.get(location[1]);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Replaces the element at the specified position in this list with the
+	 * specified element. This locks only the shard of the element and costs
+	 * O(log n).
+	 *
+	 * @param index index of the element to replace
+	 * @param element element to be stored at the specified position
+	 *
+	 * @return the element previously at the specified position
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 */
+	@Override
+	public WeightedElement<E> set(int index, WeightedElement<E> element) {
+		Objects.requireNonNull(element, "Element must not be null.");
+		int[] location = locate(index, false);
+		Shard<E> shard = shards[location[0]];
+		shard.lock.writeLock().lock();
+		try {
+			WeightedElement<E> previous = shard.elements.set(location[1], element);
+			shard.tree.set(location[1], element.getWeight());
+			publish(location[0]);
+			return previous;
+		} finally {
+			shard.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Appends the specified element to a randomly chosen shard. This locks
+	 * only that shard and costs O(log n).
+	 *
+	 * @param element element to be added to this list
+	 *
+	 * @return {@code true} (as specified by {@link Collection#add})
+	 */
+	@Override
+	public boolean add(WeightedElement<E> element) {
+		Objects.requireNonNull(element, "Element must not be null.");
+		int shardIndex = ThreadLocalRandom.current().nextInt(shards.length);
+		Shard<E> shard = shards[shardIndex];
+		shard.lock.writeLock().lock();
+		try {
+			shard.elements.add(element);
+			shard.tree.insert(shard.elements.size() - 1, element.getWeight());
+			publish(shardIndex);
+			return true;
+		} finally {
+			shard.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Inserts the specified element at the specified position in this list.
+	 * The element is inserted into the shard containing the position.
+	 *
+	 * @param index index at which the specified element is to be inserted
+	 * @param element element to be inserted
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index > size()})
+	 */
+	@Override
+	public void add(int index, WeightedElement<E> element) {
+		Objects.requireNonNull(element, "Element must not be null.");
+		int[] location = locate(index, true);
+		Shard<E> shard = shards[location[0]];
+		shard.lock.writeLock().lock();
+		try {
+			shard.elements.add(location[1], element);
+			shard.tree.insert(location[1], element.getWeight());
+			publish(location[0]);
+		} finally {
+			shard.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the element at the specified position in this list. This locks
+	 * only the shard of the element.
+	 *
+	 * @param index the index of the element to be removed
+	 *
+	 * @return the element that was removed from the list
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index >= size()})
+	 */
+	@Override
+	public WeightedElement<E> remove(int index) {
+		int[] location = locate(index, false);
+		Shard<E> shard = shards[location[0]];
+		shard.lock.writeLock().lock();
+		try {
+			WeightedElement<E> removed = shard.elements.remove(location[1]);
+			shard.tree.remove(location[1]);
+			publish(location[0]);
+			return removed;
+		} finally {
+			shard.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the first occurrence of the specified element from this list,
+	 * if it is present. The shards are searched one after another, each one
+	 * locked on its own.
+	 *
+	 * @param o element to be removed from this list, if present
+	 *
+	 * @return {@code true} if this list contained the specified element
+	 */
+	@Override
+	public boolean remove(Object o) {
+		for (int shardIndex = 0; shardIndex < shards.length; shardIndex++) {
+			Shard<E> shard = shards[shardIndex];
+			shard.lock.writeLock().lock();
+			try {
+				int index = shard.elements.indexOf(o);
+				if (index >= 0) {
+					shard.elements.remove(index);
+					shard.tree.remove(index);
+					publish(shardIndex);
+					return true;
+				}
+			} finally {
+				shard.lock.writeLock().unlock();
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes all of the elements from this list. The shards are cleared one
+	 * after another.
+	 */
+	@Override
+	public void clear() {
+		for (int shardIndex = 0; shardIndex < shards.length; shardIndex++) {
+			Shard<E> shard = shards[shardIndex];
+			shard.lock.writeLock().lock();
+			try {
+				shard.elements.clear();
+				shard.tree.clear();
+				publish(shardIndex);
+			} finally {
+				shard.lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Removes all of the elements of this list that are contained in the
+	 * specified collection. The shards are processed one after another, each
+	 * one locked on its own.
+	 *
+	 * @param c collection containing elements to be removed from this list
+	 *
+	 * @return {@code true} if this list changed as a result of the call
+	 *
+	 * @throws NullPointerException if the specified collection is null
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		Objects.requireNonNull(c, "Collection must not be null.");
+		return removeFromShards(c::contains);
+	}
+
+	/**
+	 * Retains only the elements in this list that are contained in the
+	 * specified collection. The shards are processed one after another, each
+	 * one locked on its own.
+	 *
+	 * @param c collection containing elements to be retained in this list
+	 *
+	 * @return {@code true} if this list changed as a result of the call
+	 *
+	 * @throws NullPointerException if the specified collection is null
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		Objects.requireNonNull(c, "Collection must not be null.");
+		return removeFromShards(element -> !c.contains(element));
+	}
+
+	/**
+	 * Removes all of the elements of this list that satisfy the specified
+	 * predicate. The shards are processed one after another, each one locked
+	 * on its own, so the predicate is evaluated while holding the lock of a
+	 * shard.
+	 *
+	 * @param filter predicate which returns {@code true} for elements to be
+	 * removed
+	 *
+	 * @return {@code true} if any elements were removed
+	 *
+	 * @throws NullPointerException if the specified predicate is null
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super WeightedElement<E>> filter) {
+		Objects.requireNonNull(filter, "Filter must not be null.");
+		return removeFromShards(filter);
+	}
+
+	private boolean removeFromShards(Predicate<? super WeightedElement<E>> filter) {
+		boolean changed = false;
+		for (int shardIndex = 0; shardIndex < shards.length; shardIndex++) {
+			Shard<E> shard = shards[shardIndex];
+			shard.lock.writeLock().lock();
+			try {
+				if (shard.elements.removeIf(filter)) {
+					shard.tree.invalidate();
+					publish(shardIndex);
+					changed = true;
+				}
+			} finally {
+				shard.lock.writeLock().unlock();
+			}
+		}
+		return changed;
+	}
+
+	private List<WeightedElement<E>> copy() {
+		List<WeightedElement<E>> copy = new ArrayList<>();
+		for (Shard<E> shard : shards) {
+			shard.lock.readLock().lock();
+			try {
+				copy.addAll(shard.elements);
+			} finally {
+				shard.lock.readLock().unlock();
+			}
+		}
+		return Collections.unmodifiableList(copy);
+	}
+
+	/**
+	 * Returns an iterator over a copy of the elements in this list in ordered
+	 * sequence. The iterator does not support modifications.
+	 *
+	 * @return an iterator over the elements in this list in ordered sequence
+	 */
+	@Override
+	public Iterator<WeightedElement<E>> iterator() {
+		return copy().iterator();
+	}
+
+	/**
+	 * Returns a list iterator over a copy of the elements in this list in
+	 * ordered sequence, starting at the specified position. The iterator does
+	 * not support modifications.
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * ({@code index < 0 || index > size()})
+	 */
+	@Override
+	public ListIterator<WeightedElement<E>> listIterator(int index) {
+		return copy().listIterator(index);
+	}
+
+	/**
+	 * Returns the index of the shard belonging to the specified random value
+	 * or -1 if the list is empty.
+	 */
+	private int sampleShard(double randomValue) {
+		double target = randomValue * getTotalWeight();
+		int lastNonEmpty = -1;
+		double sum = 0;
+		for (int shard = 0; shard < shards.length; shard++) {
+			if (shards[shard].size > 0) {
+				lastNonEmpty = shard;
+				sum = sum + shardWeight(shard);
+				if (target < sum) {
+					return shard;
+				}
+			}
+		}
+		return lastNonEmpty;
+	}
+
+	/**
+	 * Draws an element. If the drawn shard got empty in the meantime, another
+	 * shard is drawn.
+	 */
+	private WeightedElement<E> draw(DoubleSupplier randomSource) {
+		while (true) {
+			int shardIndex = sampleShard(randomSource.getAsDouble());
+			if (shardIndex < 0) {
+				throw new NoSuchElementException();
+			}
+			Shard<E> shard = shards[shardIndex];
+			Lock lock = shard.lock.readLock();
+			lock.lock();
+			try {
+				if (!shard.elements.isEmpty()) {
+					return shard.elements.get(shard.tree.sample(randomSource.getAsDouble()));
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements in this list in a random, endless
+	 * sequence, which reflects all modifications of this list. The iterator
+	 * uses the {@link RandomSources#threadLocal() thread-local random source},
+	 * so it can be shared by several threads. It does not support
+	 * {@link Iterator#remove() remove}.
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 */
+	@Override
+	public Iterator<WeightedElement<E>> randomizedIterator() {
+		return randomizedIterator(RandomSources.threadLocal());
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()} using the
+	 * specified random source. The iterator can only be shared by several
+	 * threads if the random source can.
+	 *
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 */
+	public Iterator<WeightedElement<E>> randomizedIterator(DoubleSupplier randomSource) {
+		Objects.requireNonNull(randomSource, "Random source must not be null.");
+		return new Iterator<WeightedElement<E>>() {
+			@Override
+			public boolean hasNext() {
+				return !isEmpty();
+			}
+
+			@Override
+			public WeightedElement<E> next() {
+				return draw(randomSource);
+			}
+		};
+	}
+
+	/**
+	 * Returns an iterable that provides an iterator like
+	 * {@link #randomizedIterator()} does. Keep in mind that the sequence of
+	 * elements provided by the iterator is endless.
+	 *
+	 * @return iterable that provides an iterator like {@link #randomizedIterator()}
+	 */
+	@Override
+	public Iterable<WeightedElement<E>> randomized() {
+		return this::randomizedIterator;
+	}
+}
@@ -0,0 +1,51 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * The storage mode determines how a {@link WeightedRandomizedList} stores its
+ * elements.
+ *
+ * @see WeightedRandomizedList#withStorageMode(StorageMode)
+ */
+public enum StorageMode {
+
+	/**
+	 * Stores the {@link WeightedElement} objects as they are added. The
+	 * elements returned by the list are the same objects that were added. This
+	 * is the default mode.
+	 */
+	ELEMENT_OBJECTS {
+		@Override
+		<E> List<WeightedElement<E>> createBackingList() {
+			return new ArrayList<>();
+		}
+	},
+
+	/**
+	 * Stores the weights in a {@code double} array and the values in a
+	 * separate array. This saves the memory of one object per element and
+	 * lets draws read the weights sequentially from one array. The
+	 * {@link WeightedElement} objects returned by the list are created on each
+	 * access, so they are equal to the added elements, but not the same
+	 * objects.
+	 */
+	PRIMITIVE_ARRAYS {
+		@Override
+		<E> List<WeightedElement<E>> createBackingList() {
+			return new WeightedElementArrayList<>();
+		}
+	};
+
+	/**
+	 * Creates an empty list storing the elements in the manner of this mode.
+	 *
+	 * @param <E> type of values in weighted elements
+	 *
+	 * @return empty list
+	 */
+	abstract <E> List<WeightedElement<E>> createBackingList();
+}
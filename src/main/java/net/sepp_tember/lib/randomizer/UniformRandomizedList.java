@@ -0,0 +1,167 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.*;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A randomized list whose randomized iterator delivers each element exactly
+ * once in a uniformly distributed random order, i.e. it iterates over a random
+ * permutation of the list. In contrast to {@link WeightedRandomizedList} the
+ * elements need no weights, so they are stored without wrappers.
+ * <p>
+ * The randomized iterator performs a Fisher-Yates shuffle lazily, one step
+ * per call to {@link Iterator#next() next()}. The list itself is never
+ * shuffled. Instead the iterator only records the positions it swapped in a
+ * sparse map, so each step costs O(1) and the iterator needs memory only for
+ * the elements drawn so far. Taking the first few random elements of a huge
+ * list is therefore cheap.
+ * <p>
+ * Like the iterators of {@link ArrayList}, the randomized iterator is
+ * fail-fast: if the list is structurally modified after the iterator was
+ * created, it throws a {@link ConcurrentModificationException}. It does not
+ * support {@link Iterator#remove() remove}.
+ *
+ * @see RandomizedList
+ *
+ * @param <E> type of elements in this list
+ */
+public class UniformRandomizedList<E> extends AbstractList<E> implements RandomizedList<E>, RandomAccess {
+
+	private final List<E> backingList;
+
+	/**
+	 * Constructs a new empty uniform randomized list.
+	 */
+	public UniformRandomizedList() {
+		backingList = new ArrayList<>();
+	}
+
+	/**
+	 * Constructs a new uniform randomized list filled with elements of
+	 * specified collection.
+	 *
+	 * @param collection source of elements for list
+	 */
+	public UniformRandomizedList(Collection<? extends E> collection) {
+		backingList = collection != null ? new ArrayList<>(collection) : new ArrayList<>();
+	}
+
+	@Override
+	public E get(int index) {
+		return backingList.get(index);
+	}
+
+	@Override
+	public int size() {
+		return backingList.size();
+	}
+
+	@Override
+	public E set(int index, E element) {
+		return backingList.set(index, element);
+	}
+
+	@Override
+	public void add(int index, E element) {
+		backingList.add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public E remove(int index) {
+		E removed = backingList.remove(index);
+		modCount++;
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		backingList.clear();
+		modCount++;
+	}
+
+	/**
+	 * Returns an iterator over the elements in this list in a uniformly
+	 * distributed random order. Each element is returned exactly once, so
+	 * unlike the iterator of {@link WeightedRandomizedList} this iterator is
+	 * finite.
+	 *
+	 * @return an iterator over a random permutation of this list
+	 */
+	@Override
+	public Iterator<E> randomizedIterator() {
+		return randomizedIterator(RandomSources.newRandom());
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()} using the
+	 * specified random source.
+	 *
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 *
+	 * @return an iterator over a random permutation of this list
+	 *
+	 * @throws NullPointerException if the specified random source is null
+	 */
+	public Iterator<E> randomizedIterator(DoubleSupplier randomSource) {
+		Objects.requireNonNull(randomSource, "Random source must not be null.");
+		return new ShuffleIterator(randomSource);
+	}
+
+	/**
+	 * Returns an iterable that provides an iterator like
+	 * {@link #randomizedIterator()} does. As the iterator is finite, the
+	 * iterable can be used in a for-loop to visit all elements in random order.
+	 *
+	 * @return iterable that provides an iterator like {@link #randomizedIterator()}
+	 */
+	@Override
+	public Iterable<E> randomized() {
+		return this::randomizedIterator;
+	}
+
+	/**
+	 * Lazy Fisher-Yates shuffle. Position {@code i} of the virtual shuffled
+	 * array holds the index {@code swaps.get(i)} if present and {@code i}
+	 * otherwise. Each step swaps the next position with a random position
+	 * behind it, returns the index now at the next position and forgets that
+	 * position, as it is never accessed again.
+	 */
+	private final class ShuffleIterator implements Iterator<E> {
+
+		private final DoubleSupplier randomSource;
+		private final Map<Integer, Integer> swaps = new HashMap<>();
+		private final int size = backingList.size();
+		private final int expectedModCount = modCount;
+		private int position;
+
+		private ShuffleIterator(DoubleSupplier randomSource) {
+			this.randomSource = randomSource;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return position < size;
+		}
+
+		@Override
+		public E next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (position >= size) {
+				throw new NoSuchElementException();
+			}
+			int swapPosition = position + (int) (randomSource.getAsDouble() * (size - position));
+			Integer current = swaps.remove(position);
+			Integer drawn = current;
+			if (swapPosition != position) {
+				drawn = swaps.put(swapPosition, current != null ? current : position);
+			}
+			int index = drawn != null ? drawn : swapPosition;
+			position++;
+			return backingList.get(index);
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * List of weighted elements which stores the weights in a {@code double}
+ * array and the elements in a separate array, instead of one
+ * {@link WeightedElement} object per entry. The {@code WeightedElement}
+ * objects returned by {@link #get(int)} and by the iterators are created on
+ * each access, so they are equal but not identical to the added ones.
+ * <p>
+ * The list does not permit {@code null} entries, but {@code null} values
+ * wrapped in a weighted element are allowed.
+ *
+ * @see StorageMode#PRIMITIVE_ARRAYS
+ *
+ * @param <E> type of values in weighted elements of this list
+ */
+class WeightedElementArrayList<E> extends AbstractList<WeightedElement<E>> implements RandomAccess, Weights {
+
+	private static final int DEFAULT_CAPACITY = 10;
+
+	private double[] weights = new double[0];
+	private Object[] elements = new Object[0];
+	private int size;
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public double getWeight(int index) {
+		checkIndex(index);
+		return weights[index];
+	}
+
+	/**
+	 * Returns the value of the weighted element at the specified index.
+	 *
+	 * @param index index of element
+	 *
+	 * @return value of weighted element
+	 */
+	@SuppressWarnings("unchecked")
+	E getElement(int index) {
+		checkIndex(index);
+		return (E) elements[index];
+	}
+
+	@Override
+	public WeightedElement<E> get(int index) {
+		return new WeightedElement<>(getWeight(index), getElement(index));
+	}
+
+	@Override
+	public WeightedElement<E> set(int index, WeightedElement<E> element) {
+		WeightedElement<E> previous = get(index);
+		weights[index] = element.getWeight();
+		elements[index] = element.getElement();
+		return previous;
+	}
+
+	/**
+	 * Increases the capacity of this list, if necessary, to hold at least the
+	 * specified number of elements without growing again.
+	 *
+	 * @param minCapacity desired minimum capacity
+	 */
+	void ensureCapacity(int minCapacity) {
+		if (minCapacity > weights.length) {
+			weights = Arrays.copyOf(weights, minCapacity);
+			elements = Arrays.copyOf(elements, minCapacity);
+		}
+	}
+
+	private void grow() {
+		if (size == weights.length) {
+			ensureCapacity(Math.max(size + (size >> 1), DEFAULT_CAPACITY));
+		}
+	}
+
+	/**
+	 * Appends an element with the specified weight and value without creating
+	 * a {@link WeightedElement}.
+	 *
+	 * @param weight weight of the element
+	 * @param element value of the element
+	 */
+	void append(double weight, E element) {
+		grow();
+		weights[size] = weight;
+		elements[size] = element;
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Multiplies all weights by the specified factor in place.
+	 *
+	 * @param factor factor to multiply the weights with
+	 */
+	void scaleWeights(double factor) {
+		for (int index = 0; index < size; index++) {
+			weights[index] = weights[index] * factor;
+		}
+	}
+
+	@Override
+	public void add(int index, WeightedElement<E> element) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		Objects.requireNonNull(element, "Element must not be null.");
+		grow();
+		System.arraycopy(weights, index, weights, index + 1, size - index);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		weights[index] = element.getWeight();
+		elements[index] = element.getElement();
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public WeightedElement<E> remove(int index) {
+		WeightedElement<E> removed = get(index);
+		removeRange(index, index + 1);
+		return removed;
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		System.arraycopy(weights, toIndex, weights, fromIndex, size - toIndex);
+		System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+		int newSize = size - (toIndex - fromIndex);
+		Arrays.fill(elements, newSize, size, null);
+		size = newSize;
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		removeRange(0, size);
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		for (int index = 0; index < size; index++) {
+			if (isEqual(index, o)) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		for (int index = size - 1; index >= 0; index--) {
+			if (isEqual(index, o)) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	/**
+	 * Compares the entry at the specified index like
+	 * {@link WeightedElement#equals(Object)} does, but without creating a
+	 * weighted element for the entry.
+	 */
+	private boolean isEqual(int index, Object o) {
+		if (!(o instanceof WeightedElement)) {
+			return false;
+		}
+		WeightedElement<?> other = (WeightedElement<?>) o;
+		return weights[index] == other.getWeight() && Objects.equals(elements[index], other.getElement());
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+}
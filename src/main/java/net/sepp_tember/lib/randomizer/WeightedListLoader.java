@@ -0,0 +1,194 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Loads weighted randomized lists from files, streaming the records straight
+ * into the {@link StorageMode#PRIMITIVE_ARRAYS primitive array storage} of the
+ * list. Neither boxed weights nor {@link WeightedRandomizedList.WeightedElement
+ * WeightedElement} objects are created while loading, so loading needs little
+ * more memory than the loaded list.
+ * <p>
+ * Two formats are supported:
+ * <ul>
+ * <li>Text files with one record per line in UTF-8. A record consists of the
+ * weight, a separator character and the element. The element is everything
+ * after the first separator, so it may contain the separator itself. Empty
+ * lines are skipped.</li>
+ * <li>Binary files consisting of records of 16 bytes each, the weight as
+ * {@code double} followed by an id as {@code long}, both in little endian
+ * byte order. Each id is mapped to the element by a function, e.g. a lookup
+ * in an array.</li>
+ * </ul>
+ */
+public final class WeightedListLoader {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int BINARY_RECORD_SIZE = Double.BYTES + Long.BYTES;
+
+	private WeightedListLoader() {
+	}
+
+	/**
+	 * Loads a list from the specified text file with comma separated records.
+	 *
+	 * @param path text file
+	 * @param elementParser function creating an element from its text
+	 * @param <E> type of values in weighted elements of the list
+	 *
+	 * @return loaded list
+	 *
+	 * @throws IOException if the file can not be read or contains an invalid
+	 * record, e.g. with a negative, infinite or NaN weight
+	 */
+	public static <E> WeightedRandomizedList<E> loadText(Path path, Function<? super String, ? extends E> elementParser)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return loadText(channel, ',', elementParser);
+		}
+	}
+
+	/**
+	 * Loads a list from the specified channel with text records separated by
+	 * the specified character. The channel is read to its end, but not closed.
+	 *
+	 * @param channel source of text records
+	 * @param separator character separating weight and element
+	 * @param elementParser function creating an element from its text
+	 * @param <E> type of values in weighted elements of the list
+	 *
+	 * @return loaded list
+	 *
+	 * @throws IOException if the channel can not be read or contains an
+	 * invalid record, e.g. with a negative, infinite or NaN weight
+	 */
+	public static <E> WeightedRandomizedList<E> loadText(ReadableByteChannel channel, char separator,
+			Function<? super String, ? extends E> elementParser) throws IOException {
+		Objects.requireNonNull(elementParser, "Element parser must not be null.");
+		WeightedElementArrayList<E> storage = new WeightedElementArrayList<>();
+		BufferedReader reader = new BufferedReader(
+				Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE), BUFFER_SIZE);
+		int lineNumber = 0;
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			lineNumber++;
+			if (line.isEmpty()) {
+				continue;
+			}
+			int separatorIndex = line.indexOf(separator);
+			if (separatorIndex < 0) {
+				throw new IOException("Line " + lineNumber + " does not contain the separator '" + separator + "'.");
+			}
+			double weight;
+			try {
+				weight = Double.parseDouble(line.substring(0, separatorIndex));
+			} catch (NumberFormatException e) {
+				throw new IOException("Line " + lineNumber + " does not start with a valid weight.", e);
+			}
+			if (!isValidWeight(weight)) {
+				throw new IOException("Line " + lineNumber + " has the weight " + weight
+						+ ", but weights must be finite and not negative.");
+			}
+			storage.append(weight, elementParser.apply(line.substring(separatorIndex + 1)));
+		}
+		return wrap(storage);
+	}
+
+	/**
+	 * Loads a list from the specified binary file.
+	 *
+	 * @param path binary file
+	 * @param elements function mapping the id of a record to its element
+	 * @param <E> type of values in weighted elements of the list
+	 *
+	 * @return loaded list
+	 *
+	 * @throws IOException if the file can not be read, its size is no
+	 * multiple of the record size or it contains a negative, infinite or NaN
+	 * weight
+	 */
+	public static <E> WeightedRandomizedList<E> loadBinary(Path path, LongFunction<? extends E> elements)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long records = channel.size() / BINARY_RECORD_SIZE;
+			if (records > Integer.MAX_VALUE - 8) {
+				throw new IOException("File " + path + " contains too many records for a list.");
+			}
+			return loadBinary(channel, (int) records, elements);
+		}
+	}
+
+	/**
+	 * Loads a list from the specified channel with binary records. The
+	 * channel is read to its end, but not closed.
+	 *
+	 * @param channel source of binary records
+	 * @param elements function mapping the id of a record to its element
+	 * @param <E> type of values in weighted elements of the list
+	 *
+	 * @return loaded list
+	 *
+	 * @throws IOException if the channel can not be read, ends within a
+	 * record or contains a negative, infinite or NaN weight
+	 */
+	public static <E> WeightedRandomizedList<E> loadBinary(ReadableByteChannel channel,
+			LongFunction<? extends E> elements) throws IOException {
+		return loadBinary(channel, 0, elements);
+	}
+
+	private static <E> WeightedRandomizedList<E> loadBinary(ReadableByteChannel channel, int expectedRecords,
+			LongFunction<? extends E> elements) throws IOException {
+		Objects.requireNonNull(elements, "Element function must not be null.");
+		WeightedElementArrayList<E> storage = new WeightedElementArrayList<>();
+		storage.ensureCapacity(expectedRecords);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			while (channel.read(buffer) >= 0) {
+				((Buffer) buffer).flip();
+				while (buffer.remaining() >= BINARY_RECORD_SIZE) {
+					double weight = buffer.getDouble();
+					if (!isValidWeight(weight)) {
+						throw new IOException("Record " + (storage.size() + 1) + " has the weight " + weight
+								+ ", but weights must be finite and not negative.");
+					}
+					storage.append(weight, elements.apply(buffer.getLong()));
+				}
+				buffer.compact();
+			}
+			if (buffer.position() > 0) {
+				throw new IOException("Input ends within a record after " + storage.size() + " complete records.");
+			}
+		} finally {
+			DirectBuffers.release(buffer);
+		}
+		return wrap(storage);
+	}
+
+	/**
+	 * Returns whether the specified weight is accepted. The storage appends
+	 * weights without the checks of
+	 * {@link WeightedRandomizedList.WeightedElement WeightedElement}, so they are
+	 * checked here, and infinite weights would break the total weight.
+	 */
+	private static boolean isValidWeight(double weight) {
+		return weight >= 0 && weight < Double.POSITIVE_INFINITY;
+	}
+
+	private static <E> WeightedRandomizedList<E> wrap(WeightedElementArrayList<E> storage) {
+		WeightedRandomizedList<E> list = new WeightedRandomizedList<>();
+		list.setBackingList(storage);
+		return list;
+	}
+}
@@ -2,7 +2,10 @@ package net.sepp_tember.lib.randomizer;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
 
 import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
 
@@ -69,24 +72,79 @@ import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
  * <td>0.333</td>
  * </tr>
  * </table>
+ * <p>
+ * Which element belongs to a random value is determined by a
+ * {@link DrawEngine}. By default the list is scanned on each draw, which costs
+ * O(n). For large lists {@link DrawEngine#ALIAS_TABLE} draws in constant time
+ * after building a table once per iterator.
+ * <p>
+ * The random values are taken from a random source, which is a new
+ * {@link Random} per iterator by default. An iterator can be shared by several
+ * threads for drawing as long as the list is not modified, but it should use
+ * the {@link RandomSources#threadLocal() thread-local random source} then, as
+ * a {@code Random} serializes concurrent accesses.
  *
  * @param <E>
  */
 public class WeightedRandomizedEndlessIterator<E> implements Iterator<WeightedElement<E>> {
 
 	private List<WeightedElement<E>> list;
-	private Random rng = new Random();
-	private double totalWeights;
+	private DoubleSupplier randomSource;
+	private WeightedSampler sampler;
 	private int lastIndex = -1;
 
 	/**
 	 * Constructs randomized iterator with specified list as source of elements.
+	 * The elements are drawn by the {@link DrawEngine#LINEAR_SCAN linear scan}
+	 * draw engine.
 	 *
 	 * @param list elements to be iterated over
 	 */
 	public WeightedRandomizedEndlessIterator(List<WeightedElement<E>> list) {
+		this(list, DrawEngine.LINEAR_SCAN);
+	}
+
+	/**
+	 * Constructs randomized iterator with specified list as source of elements,
+	 * which draws the elements by the specified draw engine.
+	 *
+	 * @param list elements to be iterated over
+	 * @param drawEngine engine used to draw the elements
+	 */
+	public WeightedRandomizedEndlessIterator(List<WeightedElement<E>> list, DrawEngine drawEngine) {
+		this(list, drawEngine, RandomSources.newRandom());
+	}
+
+	/**
+	 * Constructs randomized iterator with specified list as source of elements,
+	 * which draws the elements by the specified draw engine using the values of
+	 * the specified random source. The random source has to deliver uniformly
+	 * distributed values in the range {@code [0, 1)}, see {@link RandomSources}.
+	 *
+	 * @param list elements to be iterated over
+	 * @param drawEngine engine used to draw the elements
+	 * @param randomSource source of random values
+	 */
+	public WeightedRandomizedEndlessIterator(List<WeightedElement<E>> list, DrawEngine drawEngine,
+			DoubleSupplier randomSource) {
+		this(list, drawEngine.createSampler(list), randomSource);
+	}
+
+	/**
+	 * Constructs randomized iterator with specified list as source of elements,
+	 * which draws the elements by the specified sampler using the values of
+	 * the specified random source. The sampler may be shared with other
+	 * iterators.
+	 *
+	 * @param list elements to be iterated over
+	 * @param sampler sampler used to draw the elements
+	 * @param randomSource source of random values
+	 */
+	WeightedRandomizedEndlessIterator(List<WeightedElement<E>> list, WeightedSampler sampler,
+			DoubleSupplier randomSource) {
 		this.list = list;
-		totalWeights = list.stream().reduce(0.0, (sum, element) -> sum + element.getWeight(), (sum1, sum2) -> sum1 + sum2);
+		this.sampler = sampler;
+		this.randomSource = randomSource;
 	}
 
 	/**
@@ -97,8 +155,7 @@ public class WeightedRandomizedEndlessIterator<E> implements Iterator<WeightedEl
 	 * @param rng random number generator to randomize iteration
 	 */
 	WeightedRandomizedEndlessIterator(List<WeightedElement<E>> list, Random rng) {
-		this(list);
-		this.rng = rng;
+		this(list, DrawEngine.LINEAR_SCAN, rng::nextDouble);
 	}
 
 	/**
@@ -107,17 +164,86 @@ public class WeightedRandomizedEndlessIterator<E> implements Iterator<WeightedEl
 	 * @return next random element
 	 */
 	public WeightedElement<E> next() {
-		double randomValue = rng.nextDouble() * totalWeights;
-		double sum = 0;
-		for (int index = 0; index < list.size(); index++) {
-			WeightedElement<E> element = list.get(index);
-			sum = sum + element.getWeight();
-			if (randomValue < sum) {
-				lastIndex = index;
-				return element;
-			}
+		lastIndex = sampler.sample(randomSource.getAsDouble());
+		return list.get(lastIndex);
+	}
+
+	/**
+	 * Draws the next element like {@link #next()} does, but returns its index
+	 * in the underlying list instead of the element. This does not access the
+	 * element, so it does not allocate memory even for lists creating their
+	 * elements on access. Afterwards {@link #remove()} removes the element
+	 * at the returned index.
+	 *
+	 * @return index of next random element
+	 */
+	public int nextIndex() {
+		lastIndex = sampler.sample(randomSource.getAsDouble());
+		return lastIndex;
+	}
+
+	/**
+	 * Draws the specified number of indices at once and stores them in the
+	 * specified array, starting at the specified offset. The indices are drawn
+	 * with the same distribution as the elements returned by {@link #next()}
+	 * and refer to the underlying list. This saves the overhead of one call to
+	 * {@code next()} per draw and does not allocate any memory.
+	 * <p>
+	 * Afterwards {@link #remove()} can not be called until the next call to
+	 * {@code next()}.
+	 *
+	 * @param indices array to store the drawn indices in
+	 * @param offset index of the array to store the first drawn index at
+	 * @param length number of indices to draw
+	 *
+	 * @throws IndexOutOfBoundsException if offset or length are negative or
+	 * {@code offset + length} is greater than the length of the array
+	 * @throws NoSuchElementException if the underlying list is empty and
+	 * length is greater than zero
+	 */
+	public void drawIndices(int[] indices, int offset, int length) {
+		if (offset < 0 || length < 0 || offset > indices.length - length) {
+			throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length +
+					") out of bounds for length " + indices.length);
+		}
+		checkNotEmpty(length);
+		lastIndex = -1;
+		int end = offset + length;
+		for (int position = offset; position < end; position++) {
+			indices[position] = sampler.sample(randomSource.getAsDouble());
+		}
+	}
+
+	/**
+	 * Draws the specified number of elements at once and passes the value of
+	 * each drawn element to the specified action. The elements are drawn with
+	 * the same distribution as by {@link #next()}.
+	 * <p>
+	 * Afterwards {@link #remove()} can not be called until the next call to
+	 * {@code next()}.
+	 *
+	 * @param count number of elements to draw
+	 * @param action action to perform for each drawn value
+	 *
+	 * @throws IllegalArgumentException if count is negative
+	 * @throws NoSuchElementException if the underlying list is empty and
+	 * count is greater than zero
+	 */
+	public void draw(int count, Consumer<? super E> action) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Count must not be negative, but is " + count + ".");
+		}
+		checkNotEmpty(count);
+		lastIndex = -1;
+		for (int drawn = 0; drawn < count; drawn++) {
+			action.accept(list.get(sampler.sample(randomSource.getAsDouble())).getElement());
+		}
+	}
+
+	private void checkNotEmpty(int count) {
+		if (count > 0 && list.isEmpty()) {
+			throw new NoSuchElementException("Can not draw from empty list.");
 		}
-		return list.get(list.size() - 1);
 	}
 
 	/**
@@ -146,7 +272,7 @@ public class WeightedRandomizedEndlessIterator<E> implements Iterator<WeightedEl
 		}
 
 		WeightedElement<E> removed = list.remove(lastIndex);
-		totalWeights = totalWeights - removed.getWeight();
+		sampler.removed(lastIndex, removed.getWeight());
 		lastIndex = -1;
 	}
 }
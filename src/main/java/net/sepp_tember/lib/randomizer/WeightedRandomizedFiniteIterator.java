@@ -0,0 +1,126 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.DoubleSupplier;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * This iterator draws the elements given to the constructor with a weighted
+ * distribution <strong>without replacement</strong>, i.e. each element is
+ * returned exactly once and the iterator ends when all elements have been
+ * drawn. The result is a weighted random permutation of the elements.
+ * <p>
+ * The probability for an element to be returned by the next call to
+ * {@link Iterator#next() next()} is its weight divided by the sum of the
+ * weights of all elements not drawn yet. Elements with a weight of zero (or
+ * lower) can never be drawn by weight, so they are returned after all other
+ * elements in the order of the list.
+ * <p>
+ * The iterator copies the elements and their weights into a binary indexed
+ * tree (see {@link DrawEngine#FENWICK_TREE}) on construction, which costs
+ * O(n). Each draw then costs O(log n), so a whole permutation costs
+ * O(n log n). The list given to the constructor is never modified, and later
+ * modifications of the list are not reflected by the iterator. The iterator
+ * does not support {@link Iterator#remove() remove}.
+ * <p>
+ * The weight of a drawn element is set to zero in the tree, which rebuilds
+ * its sums once the drawn weights dominated the remaining ones, so rounding
+ * residue of drawn weights does not distort the remaining draws.
+ *
+ * @see WeightedRandomizedList#randomizedIteratorWithoutReplacement()
+ *
+ * @param <E> type of values in weighted elements
+ */
+public class WeightedRandomizedFiniteIterator<E> implements Iterator<WeightedElement<E>> {
+
+	private final WeightedElement<E>[] elements;
+	private final FenwickTree tree;
+	private final DoubleSupplier randomSource;
+	private int remainingWeighted;
+	private int remainingUnweighted;
+	private int lastWeighted;
+	private int nextUnweighted;
+
+	/**
+	 * Constructs iterator drawing the elements of the specified list without
+	 * replacement.
+	 *
+	 * @param list elements to be iterated over
+	 */
+	public WeightedRandomizedFiniteIterator(List<WeightedElement<E>> list) {
+		this(list, RandomSources.newRandom());
+	}
+
+	/**
+	 * Constructs iterator drawing the elements of the specified list without
+	 * replacement using the values of the specified random source. The random
+	 * source has to deliver uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}.
+	 *
+	 * @param list elements to be iterated over
+	 * @param randomSource source of random values
+	 */
+	public WeightedRandomizedFiniteIterator(List<WeightedElement<E>> list, DoubleSupplier randomSource) {
+		@SuppressWarnings("unchecked")
+		WeightedElement<E>[] copy = (WeightedElement<E>[]) list.toArray(new WeightedElement<?>[0]);
+		this.elements = copy;
+		this.tree = new FenwickTree(Arrays.asList(elements));
+		this.randomSource = randomSource;
+		lastWeighted = -1;
+		for (int index = 0; index < elements.length; index++) {
+			if (elements[index].getWeight() > 0) {
+				remainingWeighted++;
+				lastWeighted = index;
+			} else {
+				remainingUnweighted++;
+				tree.set(index, 0);
+			}
+		}
+		if (remainingUnweighted > 0) {
+			tree.rebuildNodes();
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return remainingWeighted > 0 || remainingUnweighted > 0;
+	}
+
+	@Override
+	public WeightedElement<E> next() {
+		if (remainingWeighted > 0) {
+			return elements[drawWeighted()];
+		}
+		if (remainingUnweighted == 0) {
+			throw new NoSuchElementException();
+		}
+		while (elements[nextUnweighted].getWeight() > 0) {
+			nextUnweighted++;
+		}
+		remainingUnweighted--;
+		return elements[nextUnweighted++];
+	}
+
+	/**
+	 * Draws one of the remaining elements with positive weight and sets its
+	 * weight in the tree to zero. Due to rounding errors the draw can hit an
+	 * already drawn element at the end of the tree, in which case the last
+	 * remaining element is taken instead.
+	 */
+	private int drawWeighted() {
+		int index = tree.sample(randomSource.getAsDouble());
+		if (!(tree.getWeight(index) > 0)) {
+			while (!(tree.getWeight(lastWeighted) > 0)) {
+				lastWeighted--;
+			}
+			index = lastWeighted;
+		}
+		tree.set(index, 0);
+		remainingWeighted--;
+		return index;
+	}
+}
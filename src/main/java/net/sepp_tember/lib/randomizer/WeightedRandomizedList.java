@@ -1,6 +1,9 @@
 package net.sepp_tember.lib.randomizer;
 
 import java.util.*;
+import java.util.function.DoubleSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
 
@@ -12,7 +15,9 @@ import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
  * wrapped in a {@link WeightedElement WeightedElement} object to define the
  * weight for the elements. The weight is needed to calculate the probability
  * for the iterator, see {@link WeightedRandomizedEndlessIterator
- * WeightedRandomizedEndlessIterator for a detailed description}.
+ * WeightedRandomizedEndlessIterator for a detailed description}. How the
+ * iterator draws the elements can be chosen by
+ * {@link #setDrawEngine(DrawEngine)}.
  *
  * @see WeightedRandomizedEndlessIterator
  * @see RandomizedList
@@ -110,6 +115,14 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	}
 
 	private List<WeightedElement<E>> backingList = new ArrayList<>();
+	private Weights weights = Weights.of(backingList);
+	private DrawEngine drawEngine = DrawEngine.LINEAR_SCAN;
+	private FenwickTree fenwickTree;
+	private volatile SharedAliasTable aliasTable;
+	private CompensatedSum totalWeight = new CompensatedSum();
+	private volatile boolean totalWeightStale = true;
+	private int modCount;
+	private SamplingListener samplingListener;
 
 	/**
 	 * Constructs a new empty weighted randomized list.
@@ -157,6 +170,24 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 		}
 	}
 
+	/**
+	 * Creates a new empty weighted randomized list, which stores its elements
+	 * in the manner of the specified storage mode.
+	 *
+	 * @param storageMode how the elements are stored
+	 * @param <E> type of values in weighted elements of the list
+	 *
+	 * @return new empty list
+	 *
+	 * @throws NullPointerException if the specified storage mode is null
+	 */
+	public static <E> WeightedRandomizedList<E> withStorageMode(StorageMode storageMode) {
+		Objects.requireNonNull(storageMode, "Storage mode must not be null.");
+		WeightedRandomizedList<E> list = new WeightedRandomizedList<>();
+		list.setBackingList(storageMode.createBackingList());
+		return list;
+	}
+
 	/**
 	 * Sets the list used by this list to store elements.
 	 *
@@ -164,6 +195,163 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 */
 	void setBackingList(List<WeightedElement<E>> backingList) {
 		this.backingList = backingList;
+		this.weights = Weights.of(backingList);
+		untracked();
+		if (fenwickTree != null) {
+			fenwickTree = new FenwickTree(backingList);
+		}
+	}
+
+	/**
+	 * Returns the draw engine used by the randomized iterators of this list.
+	 *
+	 * @return draw engine of randomized iterators
+	 */
+	public DrawEngine getDrawEngine() {
+		return drawEngine;
+	}
+
+	/**
+	 * Sets the draw engine used by randomized iterators created afterwards by
+	 * {@link #randomizedIterator()}. The default is
+	 * {@link DrawEngine#LINEAR_SCAN}.
+	 * <p>
+	 * Creating a randomized iterator costs O(1) for all draw engines, as the
+	 * iterators draw from data maintained by this list and reflect all
+	 * modifications of this list. The list keeps the total weight up to date
+	 * for {@link DrawEngine#LINEAR_SCAN}, and it shares one alias table with
+	 * all iterators, which is rebuilt on the first draw after a modification,
+	 * for {@link DrawEngine#ALIAS_TABLE}. When set to
+	 * {@link DrawEngine#FENWICK_TREE} this list maintains a tree of its weights
+	 * on every modification, which is shared by all randomized iterators.
+	 * <p>
+	 * Modifications through views like {@link #iterator()},
+	 * {@link #listIterator()} and {@link #subList(int, int)} are tracked like
+	 * all other modifications. Only bulk modifications like
+	 * {@link #addAll(int, Collection)}, {@link #removeAll(Collection)},
+	 * {@link #retainAll(Collection)} and {@link #removeIf(Predicate)} cause
+	 * the total weight and the tree to be rebuilt on the next draw.
+	 *
+	 * @param drawEngine draw engine of randomized iterators
+	 *
+	 * @throws NullPointerException if the specified draw engine is null
+	 */
+	public void setDrawEngine(DrawEngine drawEngine) {
+		this.drawEngine = Objects.requireNonNull(drawEngine, "Draw engine must not be null.");
+		if (drawEngine != DrawEngine.ALIAS_TABLE) {
+			aliasTable = null;
+		}
+		if (drawEngine != DrawEngine.FENWICK_TREE) {
+			fenwickTree = null;
+		} else if (fenwickTree == null) {
+			fenwickTree = new FenwickTree(backingList);
+		}
+	}
+
+	/**
+	 * Returns the listener notified about the draws of randomized iterators.
+	 *
+	 * @return sampling listener or null if there is none
+	 */
+	public SamplingListener getSamplingListener() {
+		return samplingListener;
+	}
+
+	/**
+	 * Sets a listener notified about the draws of randomized iterators created
+	 * afterwards, like {@link SamplingMetrics}. Without a listener, which is
+	 * the default, the iterators do not contain any instrumentation, so
+	 * drawing costs nothing extra.
+	 *
+	 * @param samplingListener sampling listener or null to disable
+	 * notifications
+	 */
+	public void setSamplingListener(SamplingListener samplingListener) {
+		this.samplingListener = samplingListener;
+	}
+
+	/**
+	 * Returns the sum of the weights of all elements in this list. The sum is
+	 * maintained on each modification by compensated summation, so this costs
+	 * O(1) unless the list was changed in a way that can not be tracked, see
+	 * {@link #setDrawEngine(DrawEngine)}. Then the sum is computed once again
+	 * from all weights.
+	 *
+	 * @return total weight of this list
+	 */
+	public double getTotalWeight() {
+		if (totalWeightStale) {
+			CompensatedSum sum = new CompensatedSum();
+			for (int index = 0; index < weights.size(); index++) {
+				sum.add(weights.getWeight(index));
+			}
+			totalWeight = sum;
+			totalWeightStale = false;
+		}
+		return totalWeight.get();
+	}
+
+	private void added(WeightedElement<?> element) {
+		modCount++;
+		if (element != null) {
+			totalWeight.add(element.getWeight());
+		} else {
+			totalWeightStale = true;
+		}
+	}
+
+	private void removed(Object element) {
+		modCount++;
+		if (element instanceof WeightedElement) {
+			totalWeight.add(-((WeightedElement<?>) element).getWeight());
+		} else {
+			totalWeightStale = true;
+		}
+	}
+
+	/**
+	 * Records the insertion of the specified element at the specified index
+	 * of the backing list.
+	 */
+	private void trackAdded(int index, WeightedElement<E> element) {
+		added(element);
+		if (fenwickTree != null) {
+			fenwickTree.insert(index, element.getWeight());
+		}
+	}
+
+	/**
+	 * Records the removal of the specified element from the specified index
+	 * of the backing list.
+	 */
+	private void trackRemoved(int index, WeightedElement<E> element) {
+		removed(element);
+		if (fenwickTree != null) {
+			fenwickTree.remove(index);
+		}
+	}
+
+	/**
+	 * Records the replacement of the specified previous element at the
+	 * specified index of the backing list.
+	 */
+	private void trackSet(int index, WeightedElement<E> previous, WeightedElement<E> element) {
+		removed(previous);
+		added(element);
+		if (fenwickTree != null) {
+			fenwickTree.set(index, element.getWeight());
+		}
+	}
+
+	/**
+	 * Records a modification whose effect on the weights is unknown.
+	 */
+	private void untracked() {
+		modCount++;
+		totalWeightStale = true;
+		if (fenwickTree != null) {
+			fenwickTree.invalidate();
+		}
 	}
 
 	/**
@@ -175,7 +363,12 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 */
 	@Override
 	public boolean add(WeightedElement<E> element) {
-		return backingList.add(element);
+		boolean changed = backingList.add(element);
+		added(element);
+		if (fenwickTree != null) {
+			fenwickTree.insert(backingList.size() - 1, element.getWeight());
+		}
+		return changed;
 	}
 
 	/**
@@ -192,6 +385,7 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	@Override
 	public void add(int index, WeightedElement<E> element) {
 		backingList.add(index, element);
+		trackAdded(index, element);
 	}
 
 	/**
@@ -207,7 +401,15 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 */
 	@Override
 	public boolean addAll(Collection<? extends WeightedElement<E>> c) {
-		return backingList.addAll(c);
+		int oldSize = backingList.size();
+		boolean changed = backingList.addAll(c);
+		for (int index = oldSize; index < backingList.size(); index++) {
+			added(backingList.get(index));
+			if (fenwickTree != null) {
+				fenwickTree.insert(index, backingList.get(index).getWeight());
+			}
+		}
+		return changed;
 	}
 
 	/**
@@ -230,7 +432,11 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 */
 	@Override
 	public boolean addAll(int index, Collection<? extends WeightedElement<E>> c) {
-		return backingList.addAll(index, c);
+		boolean changed = backingList.addAll(index, c);
+		if (changed) {
+			untracked();
+		}
+		return changed;
 	}
 
 	/**
@@ -239,6 +445,12 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	@Override
 	public void clear() {
 		backingList.clear();
+		modCount++;
+		totalWeight.reset();
+		totalWeightStale = false;
+		if (fenwickTree != null) {
+			fenwickTree.clear();
+		}
 	}
 
 	/**
@@ -303,12 +515,13 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 
 	/**
 	 * Returns an iterator over the elements in this list in ordered sequence.
+	 * Removals by the iterator are tracked like all other modifications.
 	 *
 	 * @return an iterator over the elements in this list in ordered sequence
 	 */
 	@Override
 	public Iterator<WeightedElement<E>> iterator() {
-		return backingList.iterator();
+		return listIterator();
 	}
 
 	/**
@@ -328,7 +541,7 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 */
 	@Override
 	public ListIterator<WeightedElement<E>> listIterator() {
-		return backingList.listIterator();
+		return listIterator(0);
 	}
 
 	/**
@@ -338,13 +551,15 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 * returned by an initial call to {@link ListIterator#next next}.
 	 * An initial call to {@link ListIterator#previous previous} would
 	 * return the element with the specified index minus one.
+	 * Modifications by the list iterator are tracked like all other
+	 * modifications.
 	 *
 	 * @throws IndexOutOfBoundsException if the index is out of range
 	 * ({@code index < 0 || index > size()})
 	 */
 	@Override
 	public ListIterator<WeightedElement<E>> listIterator(int index) {
-		return backingList.listIterator(index);
+		return new TrackingListIterator(backingList.listIterator(index));
 	}
 
 	/**
@@ -361,7 +576,9 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 */
 	@Override
 	public WeightedElement<E> remove(int index) {
-		return backingList.remove(index);
+		WeightedElement<E> removed = backingList.remove(index);
+		trackRemoved(index, removed);
+		return removed;
 	}
 
 	/**
@@ -376,7 +593,19 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 */
 	@Override
 	public boolean remove(Object o) {
-		return backingList.remove(o);
+		if (fenwickTree == null) {
+			boolean changed = backingList.remove(o);
+			if (changed) {
+				removed(o);
+			}
+			return changed;
+		}
+		int index = backingList.indexOf(o);
+		if (index < 0) {
+			return false;
+		}
+		remove(index);
+		return true;
 	}
 
 	/**
@@ -389,7 +618,11 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 */
 	@Override
 	public boolean removeAll(Collection<?> c) {
-		return backingList.removeAll(c);
+		boolean changed = backingList.removeAll(c);
+		if (changed) {
+			untracked();
+		}
+		return changed;
 	}
 
 	/**
@@ -403,7 +636,29 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 */
 	@Override
 	public boolean retainAll(Collection<?> c) {
-		return backingList.retainAll(c);
+		boolean changed = backingList.retainAll(c);
+		if (changed) {
+			untracked();
+		}
+		return changed;
+	}
+
+	/**
+	 * Removes all of the elements of this list that satisfy the specified
+	 * predicate.
+	 *
+	 * @param filter predicate which returns {@code true} for elements to be
+	 * removed
+	 *
+	 * @return {@code true} if any elements were removed
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super WeightedElement<E>> filter) {
+		boolean changed = backingList.removeIf(filter);
+		if (changed) {
+			untracked();
+		}
+		return changed;
 	}
 
 	/**
@@ -420,7 +675,9 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 */
 	@Override
 	public WeightedElement<E> set(int index, WeightedElement<E> element) {
-		return backingList.set(index, element);
+		WeightedElement<E> previous = backingList.set(index, element);
+		trackSet(index, previous, element);
+		return previous;
 	}
 
 	/**
@@ -459,6 +716,9 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 * any way other than via the returned list. (Structural modifications are
 	 * those that change the size of this list, or otherwise perturb it in such
 	 * a fashion that iterations in progress may yield incorrect results.)
+	 * <p>
+	 * Modifications through the returned list are tracked like all other
+	 * modifications of this list.
 	 *
 	 * @param fromIndex low endpoint (inclusive) of the subList
 	 * @param toIndex high endpoint (exclusive) of the subList
@@ -470,7 +730,7 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 */
 	@Override
 	public List<WeightedElement<E>> subList(int fromIndex, int toIndex) {
-		return backingList.subList(fromIndex, toIndex);
+		return new TrackingSubList(backingList.subList(fromIndex, toIndex), fromIndex);
 	}
 
 	/**
@@ -524,12 +784,118 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	 * returned by the iterator depends on its weight. See
 	 * {@linkplain WeightedRandomizedList the class description for information}.
 	 *
+	 * <p>
+	 * The returned iterator also provides
+	 * {@link WeightedRandomizedEndlessIterator#drawIndices(int[], int, int) bulk
+	 * draws}, which are faster than calling {@code next()} repeatedly.
+	 *
 	 * @return an iterator over the elements in this list in weighted random
 	 * sequence
 	 */
 	@Override
-	public Iterator<WeightedElement<E>> randomizedIterator() {
-		return new WeightedRandomizedEndlessIterator<E>(backingList);
+	public WeightedRandomizedEndlessIterator<E> randomizedIterator() {
+		return randomizedIterator(RandomSources.newRandom());
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()} using the
+	 * specified random source. Use {@link RandomSources#threadLocal()} for an
+	 * iterator shared by several threads.
+	 *
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * sequence
+	 *
+	 * @throws NullPointerException if the specified random source is null
+	 */
+	public WeightedRandomizedEndlessIterator<E> randomizedIterator(DoubleSupplier randomSource) {
+		Objects.requireNonNull(randomSource, "Random source must not be null.");
+		WeightedSampler sampler = samplingListener == null
+				? new TrackingSampler(drawEngine)
+				: new InstrumentedSampler(drawEngine, samplingListener);
+		return new WeightedRandomizedEndlessIterator<E>(backingList, sampler, randomSource);
+	}
+
+	/**
+	 * Returns an iterator drawing each element of this list exactly once in a
+	 * weighted random order, i.e. drawing without replacement. In contrast to
+	 * calling {@link Iterator#remove() remove} on the
+	 * {@link #randomizedIterator() randomized iterator} after each draw, this
+	 * leaves the list unchanged and costs O(log n) per draw instead of O(n).
+	 * See {@link WeightedRandomizedFiniteIterator} for details.
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * order without replacement
+	 */
+	public WeightedRandomizedFiniteIterator<E> randomizedIteratorWithoutReplacement() {
+		return randomizedIteratorWithoutReplacement(RandomSources.newRandom());
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIteratorWithoutReplacement()}
+	 * using the specified random source.
+	 *
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 *
+	 * @return an iterator over the elements in this list in weighted random
+	 * order without replacement
+	 *
+	 * @throws NullPointerException if the specified random source is null
+	 */
+	public WeightedRandomizedFiniteIterator<E> randomizedIteratorWithoutReplacement(DoubleSupplier randomSource) {
+		Objects.requireNonNull(randomSource, "Random source must not be null.");
+		return new WeightedRandomizedFiniteIterator<>(backingList, randomSource);
+	}
+
+	/**
+	 * Returns a stream of the specified number of elements drawn from this
+	 * list. The stream draws from a {@link #freeze() frozen copy} of this list,
+	 * so later modifications of this list are not reflected, and it can be
+	 * processed in {@link Stream#parallel() parallel}. This is meant for bulk
+	 * draws like Monte Carlo simulations. See
+	 * {@link FrozenWeightedRandomizedList#randomizedStream(long)} for details.
+	 *
+	 * @param count number of drawn elements
+	 *
+	 * @return stream of drawn elements
+	 *
+	 * @throws IllegalArgumentException if the count is negative
+	 */
+	public Stream<WeightedElement<E>> randomizedStream(long count) {
+		return freeze().randomizedStream(count);
+	}
+
+	/**
+	 * Returns a stream like {@link #randomizedStream(long)}, whose draws are
+	 * determined by the specified seed. See
+	 * {@link FrozenWeightedRandomizedList#randomizedStream(long, long)} for
+	 * details.
+	 *
+	 * @param count number of drawn elements
+	 * @param seed seed of the draws
+	 *
+	 * @return stream of drawn elements
+	 *
+	 * @throws IllegalArgumentException if the count is negative
+	 */
+	public Stream<WeightedElement<E>> randomizedStream(long count, long seed) {
+		return freeze().randomizedStream(count, seed);
+	}
+
+	/**
+	 * Returns an immutable copy of this list, which is optimized for drawing
+	 * elements. Later modifications of this list are not reflected in the
+	 * returned list.
+	 *
+	 * @return immutable copy of this list
+	 *
+	 * @see FrozenWeightedRandomizedList
+	 */
+	public FrozenWeightedRandomizedList<E> freeze() {
+		return new FrozenWeightedRandomizedList<>(backingList);
 	}
 
 	/**
@@ -551,4 +917,229 @@ public class WeightedRandomizedList<E> implements RandomizedList<WeightedElement
 	public Iterable<WeightedElement<E>> randomized() {
 		return this::randomizedIterator;
 	}
+
+	/**
+	 * List iterator over the backing list, which reports its modifications to
+	 * this list.
+	 */
+	private final class TrackingListIterator implements ListIterator<WeightedElement<E>> {
+
+		private final ListIterator<WeightedElement<E>> delegate;
+		private int lastIndex = -1;
+		private WeightedElement<E> lastReturned;
+
+		private TrackingListIterator(ListIterator<WeightedElement<E>> delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return delegate.hasNext();
+		}
+
+		@Override
+		public WeightedElement<E> next() {
+			int index = delegate.nextIndex();
+			lastReturned = delegate.next();
+			lastIndex = index;
+			return lastReturned;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return delegate.hasPrevious();
+		}
+
+		@Override
+		public WeightedElement<E> previous() {
+			int index = delegate.previousIndex();
+			lastReturned = delegate.previous();
+			lastIndex = index;
+			return lastReturned;
+		}
+
+		@Override
+		public int nextIndex() {
+			return delegate.nextIndex();
+		}
+
+		@Override
+		public int previousIndex() {
+			return delegate.previousIndex();
+		}
+
+		@Override
+		public void remove() {
+			delegate.remove();
+			trackRemoved(lastIndex, lastReturned);
+			lastIndex = -1;
+		}
+
+		@Override
+		public void set(WeightedElement<E> element) {
+			delegate.set(element);
+			trackSet(lastIndex, lastReturned, element);
+			lastReturned = element;
+		}
+
+		@Override
+		public void add(WeightedElement<E> element) {
+			int index = delegate.nextIndex();
+			delegate.add(element);
+			trackAdded(index, element);
+			lastIndex = -1;
+		}
+	}
+
+	/**
+	 * View of a range of the backing list, which reports its modifications to
+	 * this list. Its iterators and sub lists are built on the methods of this
+	 * view, so they are tracked as well.
+	 */
+	private final class TrackingSubList extends AbstractList<WeightedElement<E>> implements RandomAccess {
+
+		private final List<WeightedElement<E>> delegate;
+		private final int offset;
+
+		private TrackingSubList(List<WeightedElement<E>> delegate, int offset) {
+			this.delegate = delegate;
+			this.offset = offset;
+		}
+
+		@Override
+		public WeightedElement<E> get(int index) {
+			return delegate.get(index);
+		}
+
+		@Override
+		public int size() {
+			return delegate.size();
+		}
+
+		@Override
+		public WeightedElement<E> set(int index, WeightedElement<E> element) {
+			WeightedElement<E> previous = delegate.set(index, element);
+			trackSet(offset + index, previous, element);
+			return previous;
+		}
+
+		@Override
+		public void add(int index, WeightedElement<E> element) {
+			delegate.add(index, element);
+			trackAdded(offset + index, element);
+			modCount++;
+		}
+
+		@Override
+		public WeightedElement<E> remove(int index) {
+			WeightedElement<E> removed = delegate.remove(index);
+			trackRemoved(offset + index, removed);
+			modCount++;
+			return removed;
+		}
+
+		@Override
+		protected void removeRange(int fromIndex, int toIndex) {
+			delegate.subList(fromIndex, toIndex).clear();
+			untracked();
+			modCount++;
+		}
+	}
+
+	/**
+	 * Alias table built for the state of this list with the specified
+	 * modification count. It is published as a whole, so threads drawing
+	 * concurrently from an unmodified list never see a partially built table.
+	 */
+	private static final class SharedAliasTable {
+
+		private final AliasTable table;
+		private final int modCount;
+
+		private SharedAliasTable(AliasTable table, int modCount) {
+			this.table = table;
+			this.modCount = modCount;
+		}
+	}
+
+	/**
+	 * Sampler of the randomized iterators of this list, which draws from the
+	 * current state of this list with the draw engine chosen at creation of
+	 * the iterator. The linear scan uses the maintained total weight, the alias
+	 * table is shared by all iterators and only rebuilt after the list has been
+	 * modified, and the Fenwick tree is maintained by the list anyway. Removals
+	 * by the iterator are reported to the list, so they are tracked like all
+	 * other modifications.
+	 * <p>
+	 * The lazily rebuilt total weight and alias table are computed into new
+	 * objects and published once they are complete, and the Fenwick tree
+	 * synchronizes its rebuild. So threads sharing an iterator may draw
+	 * concurrently as long as the list is not modified.
+	 */
+	private class TrackingSampler implements WeightedSampler {
+
+		final DrawEngine engine;
+
+		private TrackingSampler(DrawEngine engine) {
+			this.engine = engine;
+		}
+
+		@Override
+		public int sample(double randomValue) {
+			if (engine == DrawEngine.FENWICK_TREE && fenwickTree != null) {
+				return fenwickTree.sample(randomValue);
+			}
+			if (engine == DrawEngine.ALIAS_TABLE) {
+				SharedAliasTable shared = aliasTable;
+				if (shared == null || shared.modCount != modCount) {
+					shared = new SharedAliasTable(new AliasTable(backingList), modCount);
+					aliasTable = shared;
+				}
+				return shared.table.sample(randomValue);
+			}
+			return LinearScanSampler.scan(weights, randomValue * getTotalWeight());
+		}
+
+		@Override
+		public void removed(int index, double weight) {
+			modCount++;
+			totalWeight.add(-weight);
+			if (fenwickTree != null) {
+				fenwickTree.remove(index);
+			}
+		}
+	}
+
+	/**
+	 * Tracking sampler which notifies a sampling listener about each draw and
+	 * each rebuild of the sampling data.
+	 */
+	private class InstrumentedSampler extends TrackingSampler {
+
+		private final SamplingListener listener;
+
+		private InstrumentedSampler(DrawEngine engine, SamplingListener listener) {
+			super(engine);
+			this.listener = listener;
+		}
+
+		@Override
+		public int sample(double randomValue) {
+			boolean rebuild;
+			if (engine == DrawEngine.FENWICK_TREE && fenwickTree != null) {
+				rebuild = fenwickTree.isStale();
+			} else if (engine == DrawEngine.ALIAS_TABLE) {
+				SharedAliasTable shared = aliasTable;
+				rebuild = shared == null || shared.modCount != modCount;
+			} else {
+				rebuild = totalWeightStale;
+			}
+			int index = super.sample(randomValue);
+			if (rebuild) {
+				listener.samplerRebuilt();
+			}
+			listener.drawn(index);
+			return index;
+		}
+	}
 }
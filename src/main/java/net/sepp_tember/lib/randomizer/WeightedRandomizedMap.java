@@ -0,0 +1,314 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.*;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A map from keys to weights with a weighted randomized iterator over its
+ * keys. Like {@link RandomizedList} it provides a
+ * {@link #randomizedIterator() randomized iterator}, which draws each key with
+ * a probability of its weight divided by the sum of all weights, see
+ * {@link WeightedRandomizedEndlessIterator}.
+ * <p>
+ * In contrast to a {@link WeightedRandomizedList}, whose elements are found by
+ * a linear scan comparing values and weights, each key is mapped to a slot by
+ * a hash index. The weights of the slots are kept in a binary indexed tree
+ * (see {@link DrawEngine#FENWICK_TREE}). So looking up the weight of a key
+ * costs O(1), while changing the weight of a key, adding or removing a key
+ * and drawing a key cost O(log n). Removing a key moves the key of the last
+ * slot into the freed slot, so the slots never have gaps.
+ * <p>
+ * The weights are stored as primitive {@code double} values. The methods
+ * {@link #weightOf(Object)} and {@link #setWeight(Object, double)} access them
+ * without boxing, while the methods of {@link Map} box them as {@link Double}.
+ * Keys must not be {@code null}. Iteration order of the map is the reverse
+ * order of the slots and not specified otherwise.
+ * <p>
+ * This map is not thread-safe.
+ *
+ * @param <K> type of keys in this map
+ */
+public class WeightedRandomizedMap<K> extends AbstractMap<K, Double> {
+
+	private final Map<K, Integer> slots = new HashMap<>();
+	private final List<K> keys = new ArrayList<>();
+	private final FenwickTree tree = new FenwickTree(Collections.emptyList());
+	private int modCount;
+	private Set<Map.Entry<K, Double>> entrySet;
+
+	/**
+	 * Constructs a new empty weighted randomized map.
+	 */
+	public WeightedRandomizedMap() {
+	}
+
+	/**
+	 * Constructs a new weighted randomized map with the keys and weights of
+	 * the specified map.
+	 *
+	 * @param map source of keys and weights
+	 */
+	public WeightedRandomizedMap(Map<? extends K, ? extends Number> map) {
+		if (map != null) {
+			map.forEach((key, weight) -> setWeight(key, weight.doubleValue()));
+		}
+	}
+
+	/**
+	 * Returns the weight of the specified key.
+	 *
+	 * @param key key to look up
+	 *
+	 * @return weight of key or 0 if this map does not contain the key
+	 */
+	public double weightOf(Object key) {
+		Integer slot = slots.get(key);
+		return slot != null ? tree.getWeight(slot) : 0;
+	}
+
+	/**
+	 * Sets the weight of the specified key, adding the key if this map does
+	 * not contain it yet.
+	 *
+	 * @param key key whose weight is set
+	 * @param weight new weight of key
+	 *
+	 * @return previous weight of key or 0 if this map did not contain the key
+	 *
+	 * @throws NullPointerException if the key is null
+	 * @throws IllegalArgumentException if the weight is negative or not a number
+	 */
+	public double setWeight(K key, double weight) {
+		Objects.requireNonNull(key, "Key must not be null.");
+		if (!(weight >= 0)) {
+			throw new IllegalArgumentException("Weight must not be negative, but is " + weight + ".");
+		}
+		Integer slot = slots.get(key);
+		if (slot == null) {
+			slots.put(key, keys.size());
+			tree.insert(keys.size(), weight);
+			keys.add(key);
+			modCount++;
+			return 0;
+		}
+		double previous = tree.getWeight(slot);
+		tree.set(slot, weight);
+		return previous;
+	}
+
+	/**
+	 * Removes the specified key by moving the key of the last slot into its
+	 * slot.
+	 */
+	private double removeKey(Object key) {
+		Integer slot = slots.remove(key);
+		if (slot == null) {
+			return 0;
+		}
+		double weight = tree.getWeight(slot);
+		int last = keys.size() - 1;
+		if (slot != last) {
+			K moved = keys.get(last);
+			keys.set(slot, moved);
+			slots.put(moved, slot);
+			tree.set(slot, tree.getWeight(last));
+		}
+		keys.remove(last);
+		tree.remove(last);
+		modCount++;
+		return weight;
+	}
+
+	/**
+	 * Returns the sum of the weights of all keys.
+	 *
+	 * @return total weight of this map
+	 */
+	public double getTotalWeight() {
+		return tree.getTotalWeight();
+	}
+
+	@Override
+	public int size() {
+		return keys.size();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return slots.containsKey(key);
+	}
+
+	@Override
+	public Double get(Object key) {
+		Integer slot = slots.get(key);
+		return slot != null ? tree.getWeight(slot) : null;
+	}
+
+	/**
+	 * Sets the weight of the specified key like
+	 * {@link #setWeight(Object, double)} does.
+	 *
+	 * @param key key whose weight is set
+	 * @param weight new weight of key
+	 *
+	 * @return previous weight of key or null if this map did not contain the key
+	 */
+	@Override
+	public Double put(K key, Double weight) {
+		Double previous = get(key);
+		setWeight(key, weight);
+		return previous;
+	}
+
+	@Override
+	public Double remove(Object key) {
+		return slots.containsKey(key) ? removeKey(key) : null;
+	}
+
+	@Override
+	public void clear() {
+		slots.clear();
+		keys.clear();
+		tree.clear();
+		modCount++;
+	}
+
+	@Override
+	public Set<Map.Entry<K, Double>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<K, Double>>() {
+				@Override
+				public Iterator<Map.Entry<K, Double>> iterator() {
+					return new EntryIterator();
+				}
+
+				@Override
+				public int size() {
+					return keys.size();
+				}
+
+				@Override
+				public void clear() {
+					WeightedRandomizedMap.this.clear();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	/**
+	 * Returns an endless iterator that delivers the keys of this map in a
+	 * random order with weighted distribution. The iterator always draws from
+	 * the current state of this map, so it reflects modifications made after
+	 * its creation. Its {@link Iterator#remove() remove} method removes the
+	 * last drawn key from this map.
+	 *
+	 * @return an endless iterator with weighted random order
+	 */
+	public Iterator<K> randomizedIterator() {
+		return randomizedIterator(RandomSources.newRandom());
+	}
+
+	/**
+	 * Returns an iterator like {@link #randomizedIterator()} using the
+	 * specified random source.
+	 *
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 *
+	 * @return an endless iterator with weighted random order
+	 *
+	 * @throws NullPointerException if the specified random source is null
+	 */
+	public Iterator<K> randomizedIterator(DoubleSupplier randomSource) {
+		Objects.requireNonNull(randomSource, "Random source must not be null.");
+		return new KeyIterator(randomSource);
+	}
+
+	/**
+	 * Returns an iterable that provides an iterator like
+	 * {@link #randomizedIterator()} does.
+	 *
+	 * @return iterable that provides an iterator like {@link #randomizedIterator()}
+	 */
+	public Iterable<K> randomized() {
+		return this::randomizedIterator;
+	}
+
+	/**
+	 * Iterates over the slots from the last to the first. Removing the
+	 * current key moves the key of the last slot into its slot, which has
+	 * already been visited then.
+	 */
+	private final class EntryIterator implements Iterator<Map.Entry<K, Double>> {
+
+		private int next = keys.size() - 1;
+		private K last;
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public Map.Entry<K, Double> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next < 0) {
+				throw new NoSuchElementException();
+			}
+			last = keys.get(next);
+			Map.Entry<K, Double> entry = new SimpleImmutableEntry<>(last, tree.getWeight(next));
+			next--;
+			return entry;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			removeKey(last);
+			last = null;
+			expectedModCount = modCount;
+		}
+	}
+
+	private final class KeyIterator implements Iterator<K> {
+
+		private final DoubleSupplier randomSource;
+		private K last;
+
+		private KeyIterator(DoubleSupplier randomSource) {
+			this.randomSource = randomSource;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !keys.isEmpty();
+		}
+
+		@Override
+		public K next() {
+			if (keys.isEmpty()) {
+				throw new NoSuchElementException("Can not draw from empty map.");
+			}
+			last = keys.get(tree.sample(randomSource.getAsDouble()));
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			removeKey(last);
+			last = null;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.*;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Stream;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * Draws a weighted random sample from a sequence of weighted elements in a
+ * single pass, without loading the sequence into memory. This is meant for
+ * inputs which are too large for a {@link WeightedRandomizedList}, like the
+ * results of a database cursor or the lines of a log file.
+ * <p>
+ * The sample is drawn without replacement by the algorithm A-ExpJ of
+ * Efraimidis and Spirakis: each element gets the key {@code u^(1/w)} for a
+ * uniformly distributed {@code u} and its weight {@code w}, and the sample
+ * consists of the {@code k} elements with the largest keys. Instead of
+ * computing a key for every element, the algorithm computes how much weight
+ * can be skipped before the next element enters the sample, so only
+ * O(k log(n/k)) random values are needed for a sequence of n elements. The
+ * sample needs O(k) memory.
+ * <p>
+ * For {@code k = 1} the probability for an element to be drawn is the same as
+ * described for {@link WeightedRandomizedEndlessIterator}. Elements with a
+ * weight of zero (or lower) are never drawn, so the sample contains fewer than
+ * {@code k} elements if the sequence contains fewer than {@code k} elements
+ * with positive weight. The order of the returned sample is unspecified.
+ */
+public final class WeightedReservoirSampler {
+
+	/**
+	 * Upper limit of the initial capacity of the reservoir and the sample, so
+	 * a large {@code k} does not allocate memory for elements never read.
+	 */
+	private static final int MAX_INITIAL_CAPACITY = 1024;
+
+	private WeightedReservoirSampler() {
+	}
+
+	/**
+	 * Draws a weighted random sample of at most {@code k} elements from the
+	 * remaining elements of the specified iterator. The iterator is exhausted
+	 * afterwards.
+	 *
+	 * @param iterator source of weighted elements
+	 * @param k maximum number of drawn elements
+	 * @param <E> type of values in weighted elements
+	 *
+	 * @return sample of drawn elements
+	 *
+	 * @throws IllegalArgumentException if {@code k} is negative
+	 */
+	public static <E> List<WeightedElement<E>> sample(Iterator<? extends WeightedElement<E>> iterator, int k) {
+		return sample(iterator, k, RandomSources.newRandom());
+	}
+
+	/**
+	 * Draws a weighted random sample like {@link #sample(Iterator, int)} using
+	 * the specified random source.
+	 *
+	 * @param iterator source of weighted elements
+	 * @param k maximum number of drawn elements
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 * @param <E> type of values in weighted elements
+	 *
+	 * @return sample of drawn elements
+	 *
+	 * @throws IllegalArgumentException if {@code k} is negative
+	 */
+	public static <E> List<WeightedElement<E>> sample(Iterator<? extends WeightedElement<E>> iterator, int k,
+			DoubleSupplier randomSource) {
+		if (k < 0) {
+			throw new IllegalArgumentException("Sample size must not be negative, but is " + k + ".");
+		}
+		Objects.requireNonNull(randomSource, "Random source must not be null.");
+		List<WeightedElement<E>> sample = new ArrayList<>(Math.min(k, MAX_INITIAL_CAPACITY));
+		if (k == 0) {
+			return sample;
+		}
+		PriorityQueue<Key<E>> reservoir = new PriorityQueue<>(Math.min(k, MAX_INITIAL_CAPACITY));
+		while (reservoir.size() < k && iterator.hasNext()) {
+			WeightedElement<E> element = iterator.next();
+			double weight = element.getWeight();
+			if (weight > 0) {
+				reservoir.add(new Key<>(Math.log(uniformPositive(randomSource)) / weight, element));
+			}
+		}
+		double skip = skip(reservoir, randomSource);
+		while (iterator.hasNext()) {
+			WeightedElement<E> element = iterator.next();
+			double weight = element.getWeight();
+			if (!(weight > 0)) {
+				continue;
+			}
+			skip = skip - weight;
+			if (skip <= 0) {
+				Key<E> lowest = reservoir.poll();
+				double threshold = Math.exp(lowest.logKey * weight);
+				double random = threshold + (1 - threshold) * uniformPositive(randomSource);
+				lowest.logKey = Math.log(random) / weight;
+				lowest.element = element;
+				reservoir.add(lowest);
+				skip = skip(reservoir, randomSource);
+			}
+		}
+		for (Key<E> key : reservoir) {
+			sample.add(key.element);
+		}
+		return sample;
+	}
+
+	/**
+	 * Draws a weighted random sample of at most {@code k} elements from the
+	 * specified stream. This is a terminal operation of the stream, which
+	 * processes the stream sequentially.
+	 *
+	 * @param stream source of weighted elements
+	 * @param k maximum number of drawn elements
+	 * @param <E> type of values in weighted elements
+	 *
+	 * @return sample of drawn elements
+	 *
+	 * @throws IllegalArgumentException if {@code k} is negative
+	 */
+	public static <E> List<WeightedElement<E>> sample(Stream<? extends WeightedElement<E>> stream, int k) {
+		return sample(stream, k, RandomSources.newRandom());
+	}
+
+	/**
+	 * Draws a weighted random sample like {@link #sample(Stream, int)} using
+	 * the specified random source.
+	 *
+	 * @param stream source of weighted elements
+	 * @param k maximum number of drawn elements
+	 * @param randomSource source of uniformly distributed values in the range
+	 * {@code [0, 1)}, see {@link RandomSources}
+	 * @param <E> type of values in weighted elements
+	 *
+	 * @return sample of drawn elements
+	 *
+	 * @throws IllegalArgumentException if {@code k} is negative
+	 */
+	public static <E> List<WeightedElement<E>> sample(Stream<? extends WeightedElement<E>> stream, int k,
+			DoubleSupplier randomSource) {
+		return sample(stream.sequential().iterator(), k, randomSource);
+	}
+
+	/**
+	 * Returns the weight to be skipped before the next element enters the
+	 * reservoir, or infinity if the reservoir is not full.
+	 */
+	private static double skip(PriorityQueue<? extends Key<?>> reservoir, DoubleSupplier randomSource) {
+		Key<?> lowest = reservoir.peek();
+		if (lowest == null) {
+			return Double.POSITIVE_INFINITY;
+		}
+		double skip = Math.log(uniformPositive(randomSource)) / lowest.logKey;
+		return skip > 0 ? skip : 0;
+	}
+
+	/**
+	 * Returns a uniformly distributed value in the range {@code (0, 1]}, whose
+	 * logarithm is always finite.
+	 */
+	private static double uniformPositive(DoubleSupplier randomSource) {
+		return 1 - randomSource.getAsDouble();
+	}
+
+	/**
+	 * Element in the reservoir with the logarithm of its key. Entries are
+	 * reused when an element is replaced.
+	 */
+	private static final class Key<E> implements Comparable<Key<E>> {
+
+		private double logKey;
+		private WeightedElement<E> element;
+
+		private Key(double logKey, WeightedElement<E> element) {
+			this.logKey = logKey;
+			this.element = element;
+		}
+
+		@Override
+		public int compareTo(Key<E> other) {
+			return Double.compare(logKey, other.logKey);
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package net.sepp_tember.lib.randomizer;
+
+/**
+ * A weighted sampler maps a uniformly distributed random value to the index of
+ * an element, so that each index is returned with a probability proportional
+ * to the weight of its element.
+ */
+interface WeightedSampler {
+
+	/**
+	 * Returns the index of the element belonging to the specified random value.
+	 *
+	 * @param randomValue uniformly distributed value in the range {@code [0, 1)}
+	 *
+	 * @return index of drawn element
+	 */
+	int sample(double randomValue);
+
+	/**
+	 * Informs the sampler that the element with the specified index and weight
+	 * has been removed from the source list.
+	 *
+	 * @param index former index of removed element
+	 * @param weight weight of removed element
+	 */
+	void removed(int index, double weight);
+}
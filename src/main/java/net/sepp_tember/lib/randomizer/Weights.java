@@ -0,0 +1,54 @@
+package net.sepp_tember.lib.randomizer;
+
+import java.util.List;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+
+/**
+ * Read access to the weights of a list of weighted elements by index. Samplers
+ * read the weights through this interface, so lists storing the weights as
+ * primitives do not have to create a {@link WeightedElement} for each read.
+ */
+interface Weights {
+
+	/**
+	 * Returns the number of weights.
+	 *
+	 * @return number of weights
+	 */
+	int size();
+
+	/**
+	 * Returns the weight at the specified index.
+	 *
+	 * @param index index of weight
+	 *
+	 * @return weight at specified index
+	 */
+	double getWeight(int index);
+
+	/**
+	 * Returns the weights of the specified list. If the list provides direct
+	 * access to its weights, the list itself is returned.
+	 *
+	 * @param list list of weighted elements
+	 *
+	 * @return weights of the specified list
+	 */
+	static Weights of(List<? extends WeightedElement<?>> list) {
+		if (list instanceof Weights) {
+			return (Weights) list;
+		}
+		return new Weights() {
+			@Override
+			public int size() {
+				return list.size();
+			}
+
+			@Override
+			public double getWeight(int index) {
+				return list.get(index).getWeight();
+			}
+		};
+	}
+}
@@ -0,0 +1,79 @@
+package net.sepp_tember.lib.randomizer;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels of {@link CumulativeWeights} using SIMD instructions of the
+ * incubating Vector API. This class must only be loaded if the module
+ * {@code jdk.incubator.vector} is available.
+ * <p>
+ * The cumulative weights are built one vector at a time. Within a vector the
+ * lanes are summed up in log<sub>2</sub> of the vector length steps, each
+ * adding the vector shifted by a power of two lanes, before the sum of all
+ * previous vectors is added. As the weights are summed up in a different
+ * order than by a sequential loop, the cumulative weights may differ in the
+ * last bits.
+ * <p>
+ * A search narrows the range by a binary search until it fits into a few
+ * vectors and then compares the remaining cumulative weights to the value all
+ * at once, which saves the hardly predictable branches of the last steps of
+ * the binary search.
+ */
+final class VectorizedCumulativeWeights {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+	private static final int SCAN_LENGTH = 4 * SPECIES.length();
+
+	private VectorizedCumulativeWeights() {
+	}
+
+	static void accumulate(double[] weights) {
+		int lanes = SPECIES.length();
+		int bound = SPECIES.loopBound(weights.length);
+		double sum = 0;
+		int index = 0;
+		for (; index < bound; index += lanes) {
+			DoubleVector vector = DoubleVector.fromArray(SPECIES, weights, index);
+			for (int shift = 1; shift < lanes; shift <<= 1) {
+				vector = vector.add(vector.unslice(shift));
+			}
+			vector.add(sum).intoArray(weights, index);
+			sum = weights[index + lanes - 1];
+		}
+		for (; index < weights.length; index++) {
+			sum = sum + weights[index];
+			weights[index] = sum;
+		}
+	}
+
+	static int search(double[] cumulativeWeights, double value) {
+		int low = 0;
+		int high = cumulativeWeights.length - 1;
+		while (high - low > SCAN_LENGTH) {
+			int middle = (low + high) >>> 1;
+			if (cumulativeWeights[middle] <= value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		int lanes = SPECIES.length();
+		int index = low;
+		for (; index <= high && index <= cumulativeWeights.length - lanes; index += lanes) {
+			VectorMask<Double> greater = DoubleVector.fromArray(SPECIES, cumulativeWeights, index)
+					.compare(VectorOperators.GT, value);
+			if (greater.anyTrue()) {
+				return Math.min(index + greater.firstTrue(), high);
+			}
+		}
+		for (; index < high; index++) {
+			if (cumulativeWeights[index] > value) {
+				return index;
+			}
+		}
+		return high;
+	}
+}
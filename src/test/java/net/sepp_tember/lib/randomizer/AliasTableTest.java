@@ -0,0 +1,112 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class AliasTableTest {
+
+	@Test
+	public void testSampleReturnsIndexOfColumnWhenFractionIsBelowColumnProbability() {
+		AliasTable table = new AliasTable(Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(2, "second"),
+				new WeightedElement<>(3, "third")
+		));
+
+		int index = table.sample(0.1);
+
+		assertEquals(0, index);
+	}
+
+	@Test
+	public void testSampleReturnsAliasOfColumnWhenFractionIsAboveColumnProbability() {
+		AliasTable table = new AliasTable(Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(2, "second"),
+				new WeightedElement<>(3, "third")
+		));
+
+		int index = table.sample(0.2);
+
+		assertEquals(2, index);
+	}
+
+	@Test
+	public void testSampleReturnsIndicesProportionalToWeights() {
+		List<WeightedElement<String>> list = Arrays.asList(
+				new WeightedElement<>(0.3, "first"),
+				new WeightedElement<>(0.7, "second"),
+				new WeightedElement<>(0.5, "third"),
+				new WeightedElement<>(1.9, "fourth")
+		);
+		AliasTable table = new AliasTable(list);
+		int steps = 100000;
+		int[] counts = new int[list.size()];
+
+		for (int step = 0; step < steps; step++) {
+			counts[table.sample(step / (double) steps)]++;
+		}
+
+		assertAll(
+				() -> assertEquals(0.3 / 3.4, counts[0] / (double) steps, 0.0001),
+				() -> assertEquals(0.7 / 3.4, counts[1] / (double) steps, 0.0001),
+				() -> assertEquals(0.5 / 3.4, counts[2] / (double) steps, 0.0001),
+				() -> assertEquals(1.9 / 3.4, counts[3] / (double) steps, 0.0001)
+		);
+	}
+
+	@Test
+	public void testSampleNeverReturnsIndexOfElementWithoutWeight() {
+		AliasTable table = new AliasTable(Arrays.asList(
+				new WeightedElement<>(0, "first"),
+				new WeightedElement<>(1, "second"),
+				new WeightedElement<>(0, "third")
+		));
+
+		for (double randomValue = 0; randomValue < 1; randomValue += 0.001) {
+			assertEquals(1, table.sample(randomValue));
+		}
+	}
+
+	@Test
+	public void testSampleReturnsLastIndexIfAllWeightsAreZero() {
+		AliasTable table = new AliasTable(Arrays.asList(
+				new WeightedElement<>(0, "first"),
+				new WeightedElement<>(0, "second")
+		));
+
+		assertEquals(1, table.sample(0.3));
+	}
+
+	@Test
+	public void testSampleReturnsValidIndexWhenRandomValueIsSlightlyBelowOne() {
+		AliasTable table = new AliasTable(Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(2, "second"),
+				new WeightedElement<>(3, "third")
+		));
+
+		int index = table.sample(Math.nextDown(1.0));
+
+		assertEquals(2, index);
+	}
+
+	@Test
+	public void testRemovedRebuildsTableFromList() {
+		List<WeightedElement<String>> list = new ArrayList<>();
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(1, "second"));
+		AliasTable table = new AliasTable(list);
+		list.remove(0);
+
+		table.removed(0, 1);
+
+		assertEquals(0, table.sample(0.9));
+	}
+}
@@ -0,0 +1,150 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentWeightedRandomizedListTest {
+
+	private WeightedElement<String> first = new WeightedElement<>(1, "first");
+	private WeightedElement<String> second = new WeightedElement<>(2, "second");
+
+	private ConcurrentWeightedRandomizedList<String> list = new ConcurrentWeightedRandomizedList<>();
+
+	@Test
+	public void testCopyConstructorSetsAllElements() {
+		ConcurrentWeightedRandomizedList<String> copy = new ConcurrentWeightedRandomizedList<>(Arrays.asList(first, second));
+
+		assertEquals(Arrays.asList(first, second), copy);
+	}
+
+	@Test
+	public void testModificationsPublishNewSnapshot() {
+		FrozenWeightedRandomizedList<String> before = list.snapshot();
+
+		list.add(first);
+
+		assertTrue(before.isEmpty());
+		assertEquals(Collections.singletonList(first), list.snapshot());
+	}
+
+	@Test
+	public void testListMethodsModifyList() {
+		list.add(first);
+		list.add(0, second);
+		list.set(1, new WeightedElement<>(3, "third"));
+		list.addAll(Arrays.asList(first, first));
+		list.remove(first);
+		list.remove(0);
+
+		assertEquals(Arrays.asList(new WeightedElement<>(3, "third"), first), list);
+	}
+
+	@Test
+	public void testUpdatePublishesAllChangesAtOnce() {
+		FrozenWeightedRandomizedList<String> before = list.snapshot();
+
+		list.update(elements -> {
+			elements.add(first);
+			elements.add(second);
+			assertSame(before, list.snapshot());
+		});
+
+		assertEquals(Arrays.asList(first, second), list.snapshot());
+	}
+
+	@Test
+	public void testIteratorWorksOnSnapshotAtTimeOfCreation() {
+		list.add(first);
+		Iterator<WeightedElement<String>> iterator = list.iterator();
+
+		list.clear();
+
+		assertSame(first, iterator.next());
+	}
+
+	@Test
+	public void testIteratorDoesNotSupportRemove() {
+		list.add(first);
+		Iterator<WeightedElement<String>> iterator = list.iterator();
+		iterator.next();
+
+		assertThrows(UnsupportedOperationException.class, iterator::remove);
+	}
+
+	@Test
+	public void testRemoveIfModifiesList() {
+		list.add(first);
+		list.add(second);
+
+		assertTrue(list.removeIf(element -> element.getWeight() > 1));
+
+		assertEquals(Collections.singletonList(first), list);
+	}
+
+	@Test
+	public void testRandomizedIteratorDrawsFromLatestSnapshot() {
+		list.add(first);
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		list.update(elements -> {
+			elements.set(0, new WeightedElement<>(0, "never"));
+			elements.add(second);
+		});
+
+		for (int i = 0; i < 100; i++) {
+			assertSame(second, iterator.next());
+		}
+	}
+
+	@Test
+	public void testRandomizedIteratorUsesSpecifiedRandomSource() {
+		list.addAll(Arrays.asList(first, second));
+
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(() -> 0.3);
+
+		assertSame(first, iterator.next());
+	}
+
+	@Test
+	public void testRandomizedIteratorHasNoNextIfListIsEmpty() {
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+
+	@Test
+	public void testConcurrentDrawsAndUpdates() throws Exception {
+		list.add(first);
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> readers = new ArrayList<>();
+			for (int reader = 0; reader < 3; reader++) {
+				readers.add(executor.submit(() -> {
+					for (int i = 0; i < 10000; i++) {
+						assertNotNull(iterator.next());
+					}
+				}));
+			}
+			Future<?> writer = executor.submit(() -> {
+				for (int i = 0; i < 100; i++) {
+					list.add(new WeightedElement<>(1, "element " + i));
+				}
+			});
+
+			writer.get();
+			for (Future<?> reader : readers) {
+				reader.get();
+			}
+			assertEquals(101, list.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class CumulativeWeightsIT extends CumulativeWeightsTest {
+
+	@Test
+	public void testKernelsOfPackagedJarAreVectorized() {
+		assertTrue(CumulativeWeights.isVectorized());
+	}
+
+	@Test
+	public void testAccumulateMatchesSequentialSumsForAllLengths() {
+		for (int length = 0; length < 100; length++) {
+			double[] weights = new double[length];
+			double[] expected = new double[length];
+			double sum = 0;
+			for (int index = 0; index < length; index++) {
+				weights[index] = index % 5;
+				sum = sum + weights[index];
+				expected[index] = sum;
+			}
+
+			CumulativeWeights.accumulate(weights);
+
+			assertArrayEquals(expected, weights, "length " + length);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class CumulativeWeightsTest {
+
+	@Test
+	public void testAccumulateSumsUpWeightsInPlace() {
+		double[] weights = {1, 0, 2, 3};
+
+		CumulativeWeights.accumulate(weights);
+
+		assertArrayEquals(new double[] {1, 1, 3, 6}, weights);
+	}
+
+	@Test
+	public void testSearchReturnsFirstCumulativeWeightGreaterThanValue() {
+		double[] cumulativeWeights = {1, 1, 3, 6};
+
+		assertEquals(0, CumulativeWeights.search(cumulativeWeights, 0));
+		assertEquals(2, CumulativeWeights.search(cumulativeWeights, 1));
+		assertEquals(2, CumulativeWeights.search(cumulativeWeights, 2.5));
+		assertEquals(3, CumulativeWeights.search(cumulativeWeights, 3));
+	}
+
+	@Test
+	public void testSearchReturnsLastIndexForValueAboveTotalWeight() {
+		assertEquals(3, CumulativeWeights.search(new double[] {1, 1, 3, 6}, 6));
+	}
+
+	@Test
+	public void testSearchFindsEachIndexOfLargeArray() {
+		double[] cumulativeWeights = new double[1000];
+		for (int index = 0; index < cumulativeWeights.length; index++) {
+			cumulativeWeights[index] = index % 7 == 0 ? 0 : 1;
+		}
+		CumulativeWeights.accumulate(cumulativeWeights);
+
+		for (int index = 0; index < cumulativeWeights.length; index++) {
+			if (index % 7 != 0) {
+				assertEquals(index, CumulativeWeights.search(cumulativeWeights, cumulativeWeights[index] - 0.5));
+			}
+		}
+	}
+}
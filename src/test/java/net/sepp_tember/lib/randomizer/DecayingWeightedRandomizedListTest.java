@@ -0,0 +1,107 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class DecayingWeightedRandomizedListTest {
+
+	@Test
+	public void testDecayMultipliesWeightsOfExistingElements() {
+		DecayingWeightedRandomizedList<String> list = new DecayingWeightedRandomizedList<>(Arrays.asList(
+				new WeightedElement<>(4, "first"),
+				new WeightedElement<>(8, "second")
+		));
+
+		list.decay(0.5);
+
+		assertEquals(Arrays.asList(new WeightedElement<>(2, "first"), new WeightedElement<>(4, "second")), list);
+		assertEquals(6, list.getTotalWeight());
+	}
+
+	@Test
+	public void testElementsAddedAfterDecayKeepFullWeight() {
+		DecayingWeightedRandomizedList<String> list = new DecayingWeightedRandomizedList<>();
+		list.add(new WeightedElement<>(4, "old"));
+		list.decay(0.25);
+		list.add(0, new WeightedElement<>(4, "new"));
+		list.decay(0.5);
+
+		assertEquals(2, list.getWeight(0));
+		assertEquals(0.5, list.getWeight(1));
+		assertEquals(2.5, list.getTotalWeight());
+	}
+
+	@Test
+	public void testSetAndRemoveUseDecayedWeights() {
+		DecayingWeightedRandomizedList<String> list = new DecayingWeightedRandomizedList<>();
+		list.add(new WeightedElement<>(4, "first"));
+		list.add(new WeightedElement<>(4, "second"));
+		list.decay(0.5);
+
+		assertEquals(new WeightedElement<>(2, "first"), list.set(0, new WeightedElement<>(3, "replaced")));
+		assertEquals(new WeightedElement<>(2, "second"), list.remove(1));
+		assertEquals(Collections.singletonList(new WeightedElement<>(3, "replaced")), list);
+		assertEquals(3, list.getTotalWeight());
+	}
+
+	@Test
+	public void testDecayRejectsInvalidFactors() {
+		DecayingWeightedRandomizedList<String> list = new DecayingWeightedRandomizedList<>();
+
+		assertThrows(IllegalArgumentException.class, () -> list.decay(0));
+		assertThrows(IllegalArgumentException.class, () -> list.decay(1.5));
+		assertThrows(IllegalArgumentException.class, () -> list.decay(Double.NaN));
+	}
+
+	@Test
+	public void testRenormalizationKeepsDecayedWeights() {
+		DecayingWeightedRandomizedList<String> list = new DecayingWeightedRandomizedList<>();
+		list.add(new WeightedElement<>(1, "old"));
+		for (int tick = 0; tick < 100; tick++) {
+			list.decay(0.5);
+			list.add(new WeightedElement<>(1, "tick" + tick));
+		}
+
+		assertEquals(Math.pow(0.5, 100), list.getWeight(0), 1e-40);
+		assertEquals(0.5, list.getWeight(99), 1e-12);
+		assertEquals(1, list.getWeight(100));
+		assertEquals(2, list.getTotalWeight(), 1e-12);
+	}
+
+	@Test
+	public void testDrawPrefersRecentElements() {
+		DecayingWeightedRandomizedList<String> list = new DecayingWeightedRandomizedList<>();
+		list.add(new WeightedElement<>(1, "old"));
+		list.decay(1.0 / 3);
+		list.add(new WeightedElement<>(1, "new"));
+
+		int oldCount = 0;
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(RandomSources.seeded(11));
+		for (int i = 0; i < 10000; i++) {
+			if (iterator.next().getElement().equals("old")) {
+				oldCount++;
+			}
+		}
+
+		assertEquals(2500, oldCount, 200);
+	}
+
+	@Test
+	public void testRandomizedIteratorRemovesLastDrawnElement() {
+		DecayingWeightedRandomizedList<String> list = new DecayingWeightedRandomizedList<>(Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(3, "second")
+		));
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(() -> 0);
+
+		iterator.next();
+		iterator.remove();
+
+		assertEquals(Collections.singletonList(new WeightedElement<>(3, "second")), list);
+		assertEquals("second", iterator.next().getElement());
+	}
+}
@@ -0,0 +1,196 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class FenwickTreeTest {
+
+	@Test
+	public void testSampleReturnsElementOfSubsequentIndexWhenRandomValueIsSumOfNormalizedWeightsOfSuccessiveElements() {
+		FenwickTree tree = new FenwickTree(Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(2, "second"),
+				new WeightedElement<>(3, "third")
+		));
+
+		assertEquals(2, tree.sample(0.5));
+	}
+
+	@Test
+	public void testSampleReturnsElementOfSameIndexWhenRandomValueIsBelowSumOfNormalizedWeightsOfSuccessiveElements() {
+		FenwickTree tree = new FenwickTree(Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(2, "second"),
+				new WeightedElement<>(3, "third")
+		));
+
+		assertEquals(1, tree.sample(0.499999999));
+	}
+
+	@Test
+	public void testSampleReturnsLastIndexWhenRandomValueIsSlightlyBelowOne() {
+		FenwickTree tree = new FenwickTree(Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(2, "second"),
+				new WeightedElement<>(3, "third")
+		));
+
+		assertEquals(2, tree.sample(Math.nextDown(1.0)));
+	}
+
+	@Test
+	public void testSampleNeverReturnsIndexOfElementWithoutWeight() {
+		FenwickTree tree = new FenwickTree(Arrays.asList(
+				new WeightedElement<>(0, "first"),
+				new WeightedElement<>(1, "second"),
+				new WeightedElement<>(0, "third")
+		));
+
+		for (double randomValue = 0; randomValue < 1; randomValue += 0.001) {
+			assertEquals(1, tree.sample(randomValue));
+		}
+	}
+
+	@Test
+	public void testGetTotalWeightReturnsSumOfAllWeights() {
+		FenwickTree tree = new FenwickTree(createList(13));
+
+		assertEquals(91, tree.getTotalWeight());
+	}
+
+	@Test
+	public void testSetChangesWeightOfIndex() {
+		FenwickTree tree = new FenwickTree(createList(3));
+
+		tree.set(0, 4);
+
+		assertEquals(9, tree.getTotalWeight());
+		assertEquals(0, tree.sample(0.4));
+	}
+
+	@Test
+	public void testSetRemovesResidueOfLoweredDominantWeight() {
+		FenwickTree tree = new FenwickTree(Arrays.asList(
+				new WeightedElement<>(1e17, "dominant"),
+				new WeightedElement<>(1, "second"),
+				new WeightedElement<>(1, "third"),
+				new WeightedElement<>(1, "fourth")
+		));
+
+		tree.set(0, 1);
+
+		assertEquals(4, tree.getTotalWeight());
+		for (int index = 0; index < 4; index++) {
+			assertEquals(index, tree.sample((index + 0.5) / 4));
+		}
+	}
+
+	@Test
+	public void testInsertShiftsSubsequentWeights() {
+		FenwickTree tree = new FenwickTree(createList(13));
+
+		tree.insert(5, 100);
+
+		assertEquals(191, tree.getTotalWeight());
+		assertEquals(5, tree.sample(0.1 + 100 / 191.0 / 2));
+		assertEquals(11, tree.sample(0.1 + 100 / 191.0 + 0.2));
+	}
+
+	@Test
+	public void testInsertGrowsTreeBeyondInitialCapacity() {
+		FenwickTree tree = new FenwickTree(new ArrayList<WeightedElement<String>>());
+
+		for (int i = 0; i < 100; i++) {
+			tree.insert(i, 1);
+		}
+
+		assertEquals(100, tree.getTotalWeight());
+		assertEquals(42, tree.sample(0.425));
+	}
+
+	@Test
+	public void testRemoveShiftsSubsequentWeights() {
+		FenwickTree tree = new FenwickTree(Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(100, "second"),
+				new WeightedElement<>(1, "third")
+		));
+
+		tree.remove(1);
+
+		assertEquals(2, tree.getTotalWeight());
+		assertEquals(1, tree.sample(0.75));
+	}
+
+	@Test
+	public void testSampleReturnsIndicesProportionalToWeightsAfterModifications() {
+		List<WeightedElement<String>> list = createList(20);
+		FenwickTree tree = new FenwickTree(list);
+		tree.remove(3);
+		tree.insert(7, 2.5);
+		tree.set(11, 0);
+		tree.insert(20, 6);
+		double[] weights = new double[20];
+		for (int index = 0; index < 20; index++) {
+			weights[index] = index + 1;
+		}
+		weights = removeAndInsert(weights);
+		int steps = 100000;
+		int[] counts = new int[weights.length];
+
+		for (int step = 0; step < steps; step++) {
+			counts[tree.sample(step / (double) steps)]++;
+		}
+
+		double totalWeight = Arrays.stream(weights).sum();
+		assertEquals(totalWeight, tree.getTotalWeight(), 0.000001);
+		for (int index = 0; index < weights.length; index++) {
+			assertEquals(weights[index] / totalWeight, counts[index] / (double) steps, 0.0001);
+		}
+	}
+
+	private double[] removeAndInsert(double[] weights) {
+		List<Double> list = new ArrayList<>();
+		Arrays.stream(weights).forEach(list::add);
+		list.remove(3);
+		list.add(7, 2.5);
+		list.set(11, 0.0);
+		list.add(20, 6.0);
+		return list.stream().mapToDouble(Double::doubleValue).toArray();
+	}
+
+	@Test
+	public void testInvalidateRebuildsTreeFromSourceOnNextDraw() {
+		List<WeightedElement<String>> list = createList(3);
+		FenwickTree tree = new FenwickTree(list);
+		list.set(0, new WeightedElement<>(0, "changed"));
+
+		tree.invalidate();
+
+		assertEquals(5, tree.getTotalWeight());
+		assertEquals(1, tree.sample(0));
+	}
+
+	@Test
+	public void testClearRemovesAllWeights() {
+		FenwickTree tree = new FenwickTree(createList(3));
+
+		tree.clear();
+
+		assertEquals(0, tree.getTotalWeight());
+	}
+
+	private List<WeightedElement<String>> createList(int size) {
+		List<WeightedElement<String>> list = new ArrayList<>();
+		for (int index = 0; index < size; index++) {
+			list.add(new WeightedElement<>(index + 1, "element " + index));
+		}
+		return list;
+	}
+}
@@ -0,0 +1,126 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class FrozenWeightedRandomizedListTest {
+
+	private WeightedElement<String> first = new WeightedElement<>(1, "first");
+	private WeightedElement<String> second = new WeightedElement<>(2, "second");
+	private WeightedElement<String> third = new WeightedElement<>(3, "third");
+
+	private FrozenWeightedRandomizedList<String> list = new WeightedRandomizedList<>(Arrays.asList(first, second, third)).freeze();
+
+	@Test
+	public void testFreezeCopiesAllElements() {
+		assertEquals(Arrays.asList(first, second, third), list);
+	}
+
+	@Test
+	public void testFreezeIsNotAffectedByLaterModificationsOfSource() {
+		WeightedRandomizedList<String> source = new WeightedRandomizedList<>();
+		source.add(first);
+		FrozenWeightedRandomizedList<String> frozen = source.freeze();
+
+		source.add(second);
+
+		assertEquals(Collections.singletonList(first), frozen);
+	}
+
+	@Test
+	public void testGetTotalWeightReturnsSumOfAllWeights() {
+		assertEquals(6, list.getTotalWeight());
+	}
+
+	@Test
+	public void testAddThrowsUnsupportedOperationException() {
+		assertThrows(UnsupportedOperationException.class, () -> list.add(first));
+	}
+
+	@Test
+	public void testSetThrowsUnsupportedOperationException() {
+		assertThrows(UnsupportedOperationException.class, () -> list.set(0, first));
+	}
+
+	@Test
+	public void testRemoveThrowsUnsupportedOperationException() {
+		assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+	}
+
+	@Test
+	public void testClearThrowsUnsupportedOperationException() {
+		assertThrows(UnsupportedOperationException.class, () -> list.clear());
+	}
+
+	@Test
+	public void testNextReturnsElementOfSubsequentIndexWhenRngReturnsSumOfNormalizedWeightsOfSuccessiveElements() {
+		assertSame(third, list.randomizedIterator(() -> 0.5).next());
+	}
+
+	@Test
+	public void testNextReturnsElementOfSameIndexWhenRngReturnsValueBelowSumOfNormalizedWeightsOfSuccessiveElements() {
+		assertSame(second, list.randomizedIterator(() -> 0.499999999).next());
+	}
+
+	@Test
+	public void testNextReturnsLastElementWhenRngReturnsValueSlightlyBelowOne() {
+		assertSame(third, list.randomizedIterator(() -> 0.99999999).next());
+	}
+
+	@Test
+	public void testNextNeverReturnsElementWithoutWeight() {
+		FrozenWeightedRandomizedList<String> frozen = new WeightedRandomizedList<>(Arrays.asList(
+				new WeightedElement<>(0, "never"), first, new WeightedElement<>(0, "never"))).freeze();
+
+		for (double value = 0; value < 1; value += 0.001) {
+			assertEquals(1, frozen.search(value));
+		}
+	}
+
+	@Test
+	public void testNextThrowsNoSuchElementExceptionIfListIsEmpty() {
+		Iterator<WeightedElement<Object>> iterator = new WeightedRandomizedList<>().freeze().randomizedIterator();
+
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+
+	@Test
+	public void testRandomizedIteratorRemoveThrowsUnsupportedOperationException() {
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+		iterator.next();
+
+		assertThrows(UnsupportedOperationException.class, iterator::remove);
+	}
+
+	@Test
+	public void testRandomizedStreamDeliversSpecifiedNumberOfElements() {
+		assertEquals(5000, list.randomizedStream(5000).count());
+	}
+
+	@Test
+	public void testRandomizedStreamRejectsNegativeCount() {
+		assertThrows(IllegalArgumentException.class, () -> list.randomizedStream(-1));
+	}
+
+	@Test
+	public void testRandomizedStreamWithSameSeedIsReproducibleInParallel() {
+		List<WeightedElement<String>> sequential = list.randomizedStream(100000, 42).collect(Collectors.toList());
+		List<WeightedElement<String>> parallel = list.randomizedStream(100000, 42).parallel().collect(Collectors.toList());
+
+		assertEquals(sequential, parallel);
+		assertNotEquals(sequential, list.randomizedStream(100000, 43).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testRandomizedStreamIsDistributedByWeights() {
+		long thirds = list.randomizedStream(60000, 7).parallel().filter(element -> element == third).count();
+
+		assertEquals(30000, thirds, 600);
+	}
+}
@@ -0,0 +1,186 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.function.DoubleSupplier;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class HierarchicalWeightedRandomizedListTest {
+
+	private static HierarchicalWeightedRandomizedList<String, String> createList() {
+		HierarchicalWeightedRandomizedList<String, String> list = new HierarchicalWeightedRandomizedList<>();
+		list.add("fruit", new WeightedElement<>(1, "apple"));
+		list.add("fruit", new WeightedElement<>(3, "banana"));
+		list.add("vegetable", new WeightedElement<>(4, "carrot"));
+		return list;
+	}
+
+	@Test
+	public void testListIsConcatenationOfGroups() {
+		HierarchicalWeightedRandomizedList<String, String> list = createList();
+		list.add("fruit", new WeightedElement<>(2, "cherry"));
+
+		assertEquals(Arrays.asList("fruit", "vegetable"), new ArrayList<>(list.getGroupKeys()));
+		assertEquals(Arrays.asList(
+				new WeightedElement<>(1, "apple"),
+				new WeightedElement<>(3, "banana"),
+				new WeightedElement<>(2, "cherry"),
+				new WeightedElement<>(4, "carrot")
+		), list);
+	}
+
+	@Test
+	public void testGroupWeightsFollowModificationsOfElements() {
+		HierarchicalWeightedRandomizedList<String, String> list = createList();
+		List<WeightedElement<String>> fruit = list.getGroup("fruit");
+
+		fruit.set(0, new WeightedElement<>(5, "apple"));
+		assertEquals(8, list.getGroupWeight("fruit"));
+		assertEquals(12, list.getTotalWeight());
+
+		fruit.remove(1);
+		assertEquals(5, list.getGroupWeight("fruit"));
+
+		list.set(1, new WeightedElement<>(6, "carrot"));
+		assertEquals(6, list.getGroupWeight("vegetable"));
+		assertEquals(11, list.getTotalWeight());
+		assertEquals(0, list.getGroupWeight("unknown"));
+	}
+
+	@Test
+	public void testGroupWeightFollowsLoweredDominantElement() {
+		HierarchicalWeightedRandomizedList<String, String> list = new HierarchicalWeightedRandomizedList<>();
+		list.add("fruit", new WeightedElement<>(1e17, "apple"));
+		list.add("fruit", new WeightedElement<>(1, "banana"));
+		list.add("vegetable", new WeightedElement<>(2, "carrot"));
+
+		list.getGroup("fruit").set(0, new WeightedElement<>(1, "apple"));
+
+		assertEquals(2, list.getGroupWeight("fruit"));
+		assertEquals(4, list.getTotalWeight());
+		double[] randomValues = {0.25, 0.25, 0.25, 0.75, 0.75, 0.5};
+		int[] position = {0};
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(() -> randomValues[position[0]++]);
+		assertEquals("apple", iterator.next().getElement());
+		assertEquals("banana", iterator.next().getElement());
+		assertEquals("carrot", iterator.next().getElement());
+	}
+
+	@Test
+	public void testIndexBasedMethodsOperateOnGroupOfIndex() {
+		HierarchicalWeightedRandomizedList<String, String> list = createList();
+
+		list.add(1, new WeightedElement<>(2, "cherry"));
+		list.add(list.size(), new WeightedElement<>(1, "potato"));
+		list.remove(0);
+
+		assertEquals(Arrays.asList(new WeightedElement<>(2, "cherry"), new WeightedElement<>(3, "banana")),
+				list.getGroup("fruit"));
+		assertEquals(Arrays.asList(new WeightedElement<>(4, "carrot"), new WeightedElement<>(1, "potato")),
+				list.getGroup("vegetable"));
+		assertEquals(10, list.getTotalWeight());
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(4));
+	}
+
+	@Test
+	public void testAddingByIndexWithoutGroupThrowsException() {
+		HierarchicalWeightedRandomizedList<String, String> list = new HierarchicalWeightedRandomizedList<>();
+
+		assertThrows(IllegalStateException.class, () -> list.add(new WeightedElement<>(1, "orphan")));
+	}
+
+	@Test
+	public void testRemoveGroupRemovesItsElementsAndWeight() {
+		HierarchicalWeightedRandomizedList<String, String> list = createList();
+		List<WeightedElement<String>> fruit = list.getGroup("fruit");
+
+		assertTrue(list.removeGroup("fruit"));
+		assertFalse(list.removeGroup("fruit"));
+
+		assertEquals(Collections.singletonList(new WeightedElement<>(4, "carrot")), list);
+		assertEquals(4, list.getTotalWeight());
+		assertEquals(4, list.getGroupWeight("vegetable"));
+		assertThrows(IllegalStateException.class, () -> fruit.add(new WeightedElement<>(1, "late")));
+	}
+
+	@Test
+	public void testClearRemovesAllGroups() {
+		HierarchicalWeightedRandomizedList<String, String> list = createList();
+
+		list.clear();
+
+		assertTrue(list.isEmpty());
+		assertTrue(list.getGroupKeys().isEmpty());
+		assertEquals(0, list.getTotalWeight());
+	}
+
+	@Test
+	public void testGroupsObtainedBeforeClearCanNotBeModified() {
+		HierarchicalWeightedRandomizedList<String, String> list = createList();
+		List<WeightedElement<String>> fruit = list.getGroup("fruit");
+
+		list.clear();
+		list.add("meat", new WeightedElement<>(5, "steak"));
+
+		assertThrows(IllegalStateException.class, () -> fruit.add(new WeightedElement<>(1, "late")));
+		assertThrows(IllegalStateException.class, fruit::clear);
+		assertEquals(Collections.singletonList(new WeightedElement<>(5, "steak")), list);
+		assertEquals(5, list.getTotalWeight());
+		assertEquals(5, list.getGroupWeight("meat"));
+	}
+
+	@Test
+	public void testDrawDescendsGroupsAndElements() {
+		HierarchicalWeightedRandomizedList<String, String> list = createList();
+		double[] randomValues = {0.4, 0.9, 0.6, 0.1};
+		int[] position = {0};
+
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(() -> randomValues[position[0]++]);
+
+		assertEquals("banana", iterator.next().getElement());
+		assertEquals("carrot", iterator.next().getElement());
+	}
+
+	@Test
+	public void testDistributionIsProportionalToElementWeights() {
+		HierarchicalWeightedRandomizedList<String, String> list = createList();
+		list.getGroup("empty");
+		DoubleSupplier randomSource = RandomSources.seeded(3);
+
+		Map<String, Integer> counts = new HashMap<>();
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(randomSource);
+		for (int i = 0; i < 16000; i++) {
+			counts.merge(iterator.next().getElement(), 1, Integer::sum);
+		}
+
+		assertEquals(2000, counts.get("apple"), 200);
+		assertEquals(6000, counts.get("banana"), 300);
+		assertEquals(8000, counts.get("carrot"), 300);
+	}
+
+	@Test
+	public void testRandomizedIteratorRemovesLastDrawnElement() {
+		HierarchicalWeightedRandomizedList<String, String> list = createList();
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(() -> 0);
+
+		assertThrows(IllegalStateException.class, iterator::remove);
+		iterator.next();
+		iterator.remove();
+
+		assertEquals(3, list.getGroupWeight("fruit"));
+		assertEquals(2, list.size());
+	}
+
+	@Test
+	public void testRandomizedIteratorOfEmptyListHasNoNext() {
+		HierarchicalWeightedRandomizedList<String, String> list = new HierarchicalWeightedRandomizedList<>();
+		list.getGroup("empty");
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+}
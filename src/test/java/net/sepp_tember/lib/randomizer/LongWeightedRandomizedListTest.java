@@ -0,0 +1,160 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import net.sepp_tember.lib.randomizer.LongWeightedRandomizedList.LongWeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class LongWeightedRandomizedListTest {
+
+	private static LongWeightedRandomizedList<String> list(long... weights) {
+		LongWeightedRandomizedList<String> list = new LongWeightedRandomizedList<>();
+		for (int index = 0; index < weights.length; index++) {
+			list.add(new LongWeightedElement<>(weights[index], "element" + index));
+		}
+		return list;
+	}
+
+	@Test
+	public void testElementRejectsNegativeWeight() {
+		assertThrows(IllegalArgumentException.class, () -> new LongWeightedElement<>(-1, "element"));
+	}
+
+	@Test
+	public void testElementsWithSameWeightAndValueAreEqual() {
+		assertEquals(new LongWeightedElement<>(3, "element"), new LongWeightedElement<>(3, "element"));
+		assertEquals(new LongWeightedElement<>(3, null).hashCode(), new LongWeightedElement<>(3, null).hashCode());
+		assertNotEquals(new LongWeightedElement<>(3, "element"), new LongWeightedElement<>(4, "element"));
+	}
+
+	@Test
+	public void testListMethodsKeepTotalWeight() {
+		LongWeightedRandomizedList<String> list = list(1, 2, 3);
+		list.add(1, new LongWeightedElement<>(10, "inserted"));
+		list.set(0, new LongWeightedElement<>(5, "replaced"));
+		list.remove(2);
+
+		assertEquals(Arrays.asList(
+				new LongWeightedElement<>(5, "replaced"),
+				new LongWeightedElement<>(10, "inserted"),
+				new LongWeightedElement<>(3, "element2")
+		), list);
+		assertEquals(18, list.getTotalWeight());
+
+		list.clear();
+		assertEquals(0, list.getTotalWeight());
+	}
+
+	@Test
+	public void testCopyConstructorSetsAllElements() {
+		LongWeightedRandomizedList<String> list = new LongWeightedRandomizedList<>(list(4, 5));
+
+		assertEquals(list(4, 5), list);
+		assertEquals(9, list.getTotalWeight());
+	}
+
+	@Test
+	public void testAddingBeyondMaximumTotalWeightThrowsException() {
+		LongWeightedRandomizedList<String> list = list(Long.MAX_VALUE - 2, 1);
+
+		assertThrows(ArithmeticException.class, () -> list.add(new LongWeightedElement<>(2, "overflow")));
+		assertThrows(ArithmeticException.class, () -> list.set(1, new LongWeightedElement<>(3, "overflow")));
+		assertEquals(list(Long.MAX_VALUE - 2, 1), list);
+		list.add(new LongWeightedElement<>(1, "fits"));
+		assertEquals(Long.MAX_VALUE, list.getTotalWeight());
+	}
+
+	@Test
+	public void testEachRandomValueMapsToElementOfItsWeightRange() {
+		LongWeightedRandomizedList<String> list = list(2, 0, 3, 1);
+
+		int[] expected = {0, 0, 2, 2, 2, 3};
+		for (int value = 0; value < expected.length; value++) {
+			assertEquals(expected[value], list.sample(value));
+		}
+	}
+
+	@Test
+	public void testLargeWeightsAreDrawnExactly() {
+		long large = (1L << 61) + 1;
+		LongWeightedRandomizedList<String> list = list(large, 1, large);
+
+		assertEquals(0, list.sample(large - 1));
+		assertEquals(1, list.sample(large));
+		assertEquals(2, list.sample(large + 1));
+		assertEquals(2, list.sample(list.getTotalWeight() - 1));
+	}
+
+	@Test
+	public void testSamplingFollowsModifications() {
+		LongWeightedRandomizedList<String> list = list(1, 1, 1);
+		list.set(1, new LongWeightedElement<>(0, "unweighted"));
+		list.remove(0);
+		for (int index = 0; index < 20; index++) {
+			list.add(new LongWeightedElement<>(index, "appended" + index));
+		}
+
+		long value = 0;
+		for (int index = 0; index < list.size(); index++) {
+			for (long offset = 0; offset < list.getWeight(index); offset++) {
+				assertEquals(index, list.sample(value++));
+			}
+		}
+		assertEquals(list.getTotalWeight(), value);
+	}
+
+	@Test
+	public void testRandomizedIteratorDrawsWithBoundedRandomSource() {
+		LongWeightedRandomizedList<String> list = list(1, 3);
+		List<Long> bounds = new ArrayList<>();
+
+		Iterator<LongWeightedElement<String>> iterator = list.randomizedIterator(bound -> {
+			bounds.add(bound);
+			return bound - 1;
+		});
+
+		assertTrue(iterator.hasNext());
+		assertEquals("element1", iterator.next().getElement());
+		assertEquals(Collections.singletonList(4L), bounds);
+	}
+
+	@Test
+	public void testRandomizedIteratorDistribution() {
+		LongWeightedRandomizedList<String> list = list(1, 3);
+		SplittableRandom random = new SplittableRandom(5);
+
+		int firstCount = 0;
+		Iterator<LongWeightedElement<String>> iterator = list.randomizedIterator(random::nextLong);
+		for (int i = 0; i < 10000; i++) {
+			if (iterator.next().getElement().equals("element0")) {
+				firstCount++;
+			}
+		}
+
+		assertEquals(2500, firstCount, 200);
+	}
+
+	@Test
+	public void testRandomizedIteratorRemovesLastDrawnElement() {
+		LongWeightedRandomizedList<String> list = list(1, 3);
+		Iterator<LongWeightedElement<String>> iterator = list.randomizedIterator(bound -> 0);
+
+		assertThrows(IllegalStateException.class, iterator::remove);
+		iterator.next();
+		iterator.remove();
+
+		assertEquals(3, list.getTotalWeight());
+		assertEquals("element1", iterator.next().getElement());
+	}
+
+	@Test
+	public void testRandomizedIteratorWithoutPositiveWeightsHasNoNext() {
+		LongWeightedRandomizedList<String> list = list(0);
+		Iterator<LongWeightedElement<String>> iterator = list.randomizedIterator();
+
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+}
@@ -0,0 +1,151 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MappedWeightedSnapshotTest {
+
+	private Path file;
+
+	private List<WeightedElement<String>> list = Arrays.asList(
+			new WeightedElement<>(1, "first"),
+			new WeightedElement<>(0, "never"),
+			new WeightedElement<>(3, "third")
+	);
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		file = Files.createTempFile("snapshot", ".bin");
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void testOpenedSnapshotContainsWrittenWeightsAndIds() throws IOException {
+		MappedWeightedSnapshot.write(list, element -> element.length(), file);
+
+		try (MappedWeightedSnapshot snapshot = MappedWeightedSnapshot.open(file)) {
+			assertEquals(3, snapshot.size());
+			assertEquals(4, snapshot.getTotalWeight());
+			assertEquals(new WeightedElement<>(1, 5L), snapshot.get(0));
+			assertEquals(new WeightedElement<>(0, 5L), snapshot.get(1));
+			assertEquals(3, snapshot.getWeight(2));
+			assertEquals(5L, snapshot.getId(2));
+		}
+	}
+
+	@Test
+	public void testWriteWithoutIdFunctionUsesIndices() throws IOException {
+		MappedWeightedSnapshot.write(list, file);
+
+		try (MappedWeightedSnapshot snapshot = MappedWeightedSnapshot.open(file)) {
+			assertEquals(0, snapshot.getId(0));
+			assertEquals(2, snapshot.getId(2));
+		}
+	}
+
+	@Test
+	public void testRandomizedIteratorDrawsByWeights() throws IOException {
+		MappedWeightedSnapshot.write(list, file);
+
+		try (MappedWeightedSnapshot snapshot = MappedWeightedSnapshot.open(file)) {
+			Iterator<WeightedElement<Long>> iterator = snapshot.randomizedIterator(RandomSources.seeded(3));
+			int[] counts = new int[3];
+			for (int i = 0; i < 40000; i++) {
+				counts[iterator.next().getElement().intValue()]++;
+			}
+
+			assertEquals(10000, counts[0], 400);
+			assertEquals(0, counts[1]);
+			assertEquals(30000, counts[2], 400);
+		}
+	}
+
+	@Test
+	public void testRandomizedIteratorDrawsLikeAliasTable() throws IOException {
+		MappedWeightedSnapshot.write(list, file);
+		AliasTable aliasTable = new AliasTable(list);
+
+		try (MappedWeightedSnapshot snapshot = MappedWeightedSnapshot.open(file)) {
+			for (double randomValue = 0; randomValue < 1; randomValue += 0.01) {
+				double value = randomValue;
+				assertEquals(aliasTable.sample(value), snapshot.randomizedIterator(() -> value).next().getElement().intValue());
+			}
+		}
+	}
+
+	@Test
+	public void testSnapshotIsImmutable() throws IOException {
+		MappedWeightedSnapshot.write(list, file);
+
+		try (MappedWeightedSnapshot snapshot = MappedWeightedSnapshot.open(file)) {
+			assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new WeightedElement<>(1, 3L)));
+			Iterator<WeightedElement<Long>> iterator = snapshot.randomizedIterator();
+			iterator.next();
+			assertThrows(UnsupportedOperationException.class, iterator::remove);
+		}
+	}
+
+	@Test
+	public void testClosedSnapshotThrowsIllegalStateException() throws IOException {
+		MappedWeightedSnapshot.write(list, file);
+		MappedWeightedSnapshot snapshot = MappedWeightedSnapshot.open(file);
+
+		snapshot.close();
+		snapshot.close();
+
+		assertThrows(IllegalStateException.class, () -> snapshot.get(0));
+	}
+
+	@Test
+	public void testWriteReplacesFileWithoutAffectingOpenedSnapshot() throws IOException {
+		MappedWeightedSnapshot.write(list, file);
+
+		try (MappedWeightedSnapshot snapshot = MappedWeightedSnapshot.open(file)) {
+			MappedWeightedSnapshot.write(Collections.singletonList(new WeightedElement<>(2, "replacement")), file);
+
+			assertEquals(3, snapshot.size());
+			assertEquals(3, snapshot.getWeight(2));
+			assertEquals(4, snapshot.getTotalWeight());
+		}
+		try (MappedWeightedSnapshot snapshot = MappedWeightedSnapshot.open(file)) {
+			assertEquals(1, snapshot.size());
+			assertEquals(2, snapshot.getTotalWeight());
+		}
+		try (Stream<Path> files = Files.list(file.toAbsolutePath().getParent())) {
+			assertEquals(Collections.singletonList(file.getFileName()), files.map(Path::getFileName)
+					.filter(name -> name.toString().startsWith(file.getFileName().toString()))
+					.collect(Collectors.toList()));
+		}
+	}
+
+	@Test
+	public void testOpenRejectsOtherFiles() throws IOException {
+		Files.write(file, new byte[64]);
+
+		assertThrows(IOException.class, () -> MappedWeightedSnapshot.open(file));
+	}
+
+	@Test
+	public void testOpenRejectsTruncatedFiles() throws IOException {
+		MappedWeightedSnapshot.write(list, file);
+		byte[] content = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(content, content.length - 4));
+
+		assertThrows(IOException.class, () -> MappedWeightedSnapshot.open(file));
+	}
+}
@@ -0,0 +1,242 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class OffHeapWeightedRandomizedListTest {
+
+	private OffHeapWeightedRandomizedList<String> list = new OffHeapWeightedRandomizedList<>(2);
+
+	@AfterEach
+	public void closeList() {
+		list.close();
+	}
+
+	@Test
+	public void testGetReturnsElementEqualToAddedElement() {
+		list.add(new WeightedElement<>(0.1, "first"));
+		list.add(new WeightedElement<>(0.2, "second"));
+
+		assertEquals(new WeightedElement<>(0.2, "second"), list.get(1));
+	}
+
+	@Test
+	public void testAddGrowsListBeyondInitialCapacity() {
+		for (int i = 0; i < 2000; i++) {
+			list.add(new WeightedElement<>(1, "element " + i));
+		}
+
+		assertEquals(2000, list.size());
+		assertEquals(2000, list.getTotalWeight());
+		assertEquals(new WeightedElement<>(1, "element 1999"), list.get(1999));
+	}
+
+	@Test
+	public void testAddIndexedShiftsSubsequentElements() {
+		list.add(new WeightedElement<>(0.1, "first"));
+		list.add(new WeightedElement<>(0.3, "third"));
+
+		list.add(1, new WeightedElement<>(0.2, "second"));
+
+		assertEquals(Arrays.asList(
+				new WeightedElement<>(0.1, "first"),
+				new WeightedElement<>(0.2, "second"),
+				new WeightedElement<>(0.3, "third")
+		), list);
+	}
+
+	@Test
+	public void testAddIndexedThrowsIndexOutOfBoundsExceptionIfGivenIndexIsGreaterThanSize() {
+		assertThrows(IndexOutOfBoundsException.class, () -> list.add(1, new WeightedElement<>(0.1, "first")));
+	}
+
+	@Test
+	public void testGetThrowsIndexOutOfBoundsExceptionIfGivenIndexIsGreaterOrEqualThanSize() {
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(0));
+	}
+
+	@Test
+	public void testConstructorThrowsIllegalArgumentExceptionIfInitialCapacityIsNegative() {
+		assertThrows(IllegalArgumentException.class, () -> new OffHeapWeightedRandomizedList<>(-1));
+	}
+
+	@Test
+	public void testSetReplacesElementAndUpdatesTotalWeight() {
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(2, "second"));
+
+		WeightedElement<String> previous = list.set(0, new WeightedElement<>(4, "replaced"));
+
+		assertEquals(new WeightedElement<>(1, "first"), previous);
+		assertEquals(new WeightedElement<>(4, "replaced"), list.get(0));
+		assertEquals(6, list.getTotalWeight());
+	}
+
+	@Test
+	public void testRemoveShiftsSubsequentElementsAndUpdatesTotalWeight() {
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(2, "second"));
+		list.add(new WeightedElement<>(3, "third"));
+
+		WeightedElement<String> removed = list.remove(1);
+
+		assertEquals(new WeightedElement<>(2, "second"), removed);
+		assertEquals(Arrays.asList(new WeightedElement<>(1, "first"), new WeightedElement<>(3, "third")), list);
+		assertEquals(4, list.getTotalWeight());
+	}
+
+	@Test
+	public void testClearRemovesAllElements() {
+		list.add(new WeightedElement<>(1, "first"));
+
+		list.clear();
+
+		assertTrue(list.isEmpty());
+		assertEquals(0, list.getTotalWeight());
+	}
+
+	@Test
+	public void testRandomizedIteratorReflectsModificationsOfList() {
+		list.add(new WeightedElement<>(1, "removed"));
+		list.add(new WeightedElement<>(1, "replaced"));
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		list.remove(0);
+		list.set(0, new WeightedElement<>(0, "replacement"));
+		list.add(new WeightedElement<>(1, "expected"));
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals("expected", iterator.next().getElement());
+		}
+	}
+
+	@Test
+	public void testNextReturnsElementOfSubsequentIndexWhenRngReturnsSumOfNormalizedWeightsOfSuccessiveElements() {
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(2, "second"));
+		list.add(new WeightedElement<>(3, "third"));
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(() -> 0.5);
+
+		assertEquals("third", iterator.next().getElement());
+	}
+
+	@Test
+	public void testRandomizedIteratorRemoveRemovesElementFromList() {
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(1, "second"));
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+		WeightedElement<String> removed = iterator.next();
+
+		iterator.remove();
+
+		assertEquals(1, list.size());
+		assertFalse(list.contains(removed));
+		assertEquals(1, list.getTotalWeight());
+	}
+
+	@Test
+	public void testAddAndRemoveAtFrontShiftWeightsBeyondOneCopyChunk() {
+		for (int i = 0; i < 3000; i++) {
+			list.add(new WeightedElement<>(i, "element " + i));
+		}
+
+		list.add(0, new WeightedElement<>(0.5, "first"));
+
+		assertEquals(3001, list.size());
+		assertEquals(0.5, list.getWeight(0));
+		for (int i = 0; i < 3000; i++) {
+			assertEquals(i, list.getWeight(i + 1));
+		}
+
+		list.remove(0);
+		list.remove(0);
+
+		for (int i = 0; i < 2999; i++) {
+			assertEquals(i + 1, list.getWeight(i));
+		}
+		assertEquals(2999.0 * 3000 / 2, list.getTotalWeight());
+	}
+
+	@Test
+	public void testSetWeightReplacesWeightAndUpdatesTotalWeight() {
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(2, "second"));
+
+		assertEquals(2, list.setWeight(1, 5));
+
+		assertEquals(new WeightedElement<>(5, "second"), list.get(1));
+		assertEquals("second", list.getElement(1));
+		assertEquals(6, list.getTotalWeight());
+	}
+
+	@Test
+	public void testSetWeightRemovesResidueOfLoweredDominantWeight() {
+		list.add(new WeightedElement<>(1e17, "dominant"));
+		list.add(new WeightedElement<>(1, "second"));
+		list.add(new WeightedElement<>(1, "third"));
+		list.add(new WeightedElement<>(1, "fourth"));
+
+		list.setWeight(0, 1);
+
+		assertEquals(4, list.getTotalWeight());
+		double[] randomValues = {0.125, 0.375, 0.625, 0.875};
+		int[] position = {0};
+		WeightedRandomizedEndlessIterator<String> iterator = list.randomizedIterator(() -> randomValues[position[0]++]);
+		for (int index = 0; index < 4; index++) {
+			assertEquals(index, iterator.nextIndex());
+		}
+	}
+
+	@Test
+	public void testSetWeightThrowsIllegalArgumentExceptionIfWeightIsNegativeOrNaN() {
+		list.add(new WeightedElement<>(1, "first"));
+
+		assertThrows(IllegalArgumentException.class, () -> list.setWeight(0, -1));
+		assertThrows(IllegalArgumentException.class, () -> list.setWeight(0, Double.NaN));
+		assertEquals(1, list.getTotalWeight());
+	}
+
+	@Test
+	public void testNextIndexDrawsIndexWithWeightedDistribution() {
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(0, "never"));
+		list.add(new WeightedElement<>(1, "third"));
+		WeightedRandomizedEndlessIterator<String> iterator = list.randomizedIterator(() -> 0.75);
+
+		assertEquals(2, iterator.nextIndex());
+
+		iterator.remove();
+
+		assertEquals(Arrays.asList(new WeightedElement<>(1, "first"), new WeightedElement<>(0, "never")), list);
+	}
+
+	@Test
+	public void testConstructorThrowsIllegalArgumentExceptionIfInitialCapacityExceedsMaximum() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new OffHeapWeightedRandomizedList<>(OffHeapWeightedRandomizedList.MAX_CAPACITY + 1));
+	}
+
+	@Test
+	public void testMethodsThrowIllegalStateExceptionAfterClose() {
+		list.add(new WeightedElement<>(1, "first"));
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		list.close();
+
+		assertThrows(IllegalStateException.class, () -> list.add(new WeightedElement<>(1, "second")));
+		assertThrows(IllegalStateException.class, () -> list.getTotalWeight());
+		assertThrows(IllegalStateException.class, iterator::next);
+	}
+
+	@Test
+	public void testCloseCanBeCalledSeveralTimes() {
+		list.close();
+
+		assertDoesNotThrow(list::close);
+	}
+}
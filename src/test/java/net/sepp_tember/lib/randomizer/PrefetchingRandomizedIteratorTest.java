@@ -0,0 +1,182 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class PrefetchingRandomizedIteratorTest {
+
+	private static ConcurrentWeightedRandomizedList<String> createList() {
+		return new ConcurrentWeightedRandomizedList<>(Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(3, "second")
+		));
+	}
+
+	@Test
+	public void testCapacityIsRoundedUpToPowerOfTwo() {
+		try (PrefetchingRandomizedIterator<String> iterator = createList().prefetchingIterator(100)) {
+			assertEquals(128, iterator.getCapacity());
+		}
+	}
+
+	@Test
+	public void testInvalidCapacityThrowsException() {
+		ConcurrentWeightedRandomizedList<String> list = createList();
+
+		assertThrows(IllegalArgumentException.class, () -> list.prefetchingIterator(1));
+		assertThrows(IllegalArgumentException.class, () -> list.prefetchingIterator((1 << 30) + 1));
+	}
+
+	@Test
+	public void testDistributionFollowsWeights() {
+		try (PrefetchingRandomizedIterator<String> iterator = createList().prefetchingIterator(64)) {
+			int firstCount = 0;
+			for (int i = 0; i < 20000; i++) {
+				if (iterator.next().getElement().equals("first")) {
+					firstCount++;
+				}
+			}
+
+			assertEquals(5000, firstCount, 400);
+		}
+	}
+
+	@Test
+	public void testDrawsOnlyElementsOfLatestSnapshotAfterModification() throws Exception {
+		ConcurrentWeightedRandomizedList<String> list = createList();
+		try (PrefetchingRandomizedIterator<String> iterator = list.prefetchingIterator(1024)) {
+			Thread.sleep(10);
+			list.set(0, new WeightedElement<>(1, "replaced"));
+			list.remove(1);
+
+			for (int i = 0; i < 2000; i++) {
+				assertEquals("replaced", iterator.next().getElement());
+			}
+		}
+	}
+
+	@Test
+	public void testConcurrentConsumersDrawValidElements() throws Exception {
+		ConcurrentWeightedRandomizedList<String> list = createList();
+		AtomicInteger invalid = new AtomicInteger();
+		try (PrefetchingRandomizedIterator<String> iterator = list.prefetchingIterator(256)) {
+			List<Thread> threads = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				threads.add(new Thread(() -> {
+					for (int i = 0; i < 10000; i++) {
+						String element = iterator.next().getElement();
+						if (!element.equals("first") && !element.equals("second")) {
+							invalid.incrementAndGet();
+						}
+					}
+				}));
+			}
+			threads.forEach(Thread::start);
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		}
+
+		assertEquals(0, invalid.get());
+	}
+
+	@Test
+	public void testEmptyListHasNoNext() {
+		try (PrefetchingRandomizedIterator<String> iterator =
+				new ConcurrentWeightedRandomizedList<String>().prefetchingIterator(16)) {
+			assertFalse(iterator.hasNext());
+			assertThrows(NoSuchElementException.class, iterator::next);
+		}
+	}
+
+	@Test
+	public void testClosedIteratorDrawsDirectly() {
+		PrefetchingRandomizedIterator<String> iterator = createList().prefetchingIterator(16);
+		iterator.close();
+
+		for (int i = 0; i < 100; i++) {
+			assertNotNull(iterator.next());
+		}
+	}
+
+	@Test
+	public void testRemoveIsNotSupported() {
+		try (PrefetchingRandomizedIterator<String> iterator = createList().prefetchingIterator(16)) {
+			iterator.next();
+
+			assertThrows(UnsupportedOperationException.class, iterator::remove);
+		}
+	}
+
+	private static void awaitFullBuffer(PrefetchingRandomizedIterator<String> iterator) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (iterator.getBuffered() < iterator.getCapacity()
+				|| iterator.getProducerThread().getState() != Thread.State.WAITING) {
+			assertTrue(System.nanoTime() < deadline, "buffer has not been filled");
+			Thread.sleep(1);
+		}
+	}
+
+	@Test
+	public void testNextTakesIndicesFromBuffer() throws Exception {
+		try (PrefetchingRandomizedIterator<String> iterator = createList().prefetchingIterator(1024)) {
+			awaitFullBuffer(iterator);
+
+			for (int i = 0; i < 512; i++) {
+				assertNotNull(iterator.next());
+			}
+
+			assertEquals(0, iterator.getFallbackDraws());
+			awaitFullBuffer(iterator);
+		}
+	}
+
+	@Test
+	public void testIdleProducerWaitsUntilListIsModified() throws Exception {
+		ConcurrentWeightedRandomizedList<String> list = createList();
+		try (PrefetchingRandomizedIterator<String> iterator = list.prefetchingIterator(64)) {
+			awaitFullBuffer(iterator);
+
+			list.set(0, new WeightedElement<>(1, "replaced"));
+			list.remove(1);
+			awaitFullBuffer(iterator);
+
+			for (int i = 0; i < 64; i++) {
+				assertEquals("replaced", iterator.next().getElement());
+			}
+			assertEquals(0, iterator.getFallbackDraws());
+		}
+	}
+
+	private static Thread startAbandonedIterator(ConcurrentWeightedRandomizedList<String> list) {
+		return list.prefetchingIterator(16).getProducerThread();
+	}
+
+	@Test
+	public void testProducerOfAbandonedIteratorTerminates() throws Exception {
+		Thread producer = startAbandonedIterator(createList());
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (producer.isAlive()) {
+			assertTrue(System.nanoTime() < deadline, "producer is still alive");
+			System.gc();
+			producer.join(10);
+		}
+	}
+
+	@Test
+	public void testCloseTerminatesProducer() throws Exception {
+		PrefetchingRandomizedIterator<String> iterator = createList().prefetchingIterator(16);
+
+		iterator.close();
+		iterator.getProducerThread().join(10000);
+
+		assertFalse(iterator.getProducerThread().isAlive());
+	}
+}
@@ -0,0 +1,70 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.concurrent.*;
+import java.util.function.DoubleSupplier;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class RandomSourcesTest {
+
+	@Test
+	public void testNewRandomDeliversValuesBetweenZeroAndOne() {
+		assertValuesBetweenZeroAndOne(RandomSources.newRandom());
+	}
+
+	@Test
+	public void testThreadLocalDeliversValuesBetweenZeroAndOne() {
+		assertValuesBetweenZeroAndOne(RandomSources.threadLocal());
+	}
+
+	@Test
+	public void testSeededDeliversValuesBetweenZeroAndOne() {
+		assertValuesBetweenZeroAndOne(RandomSources.seeded(42));
+	}
+
+	@Test
+	public void testSeededDeliversSameSequenceForSameSeed() {
+		DoubleSupplier someSource = RandomSources.seeded(42);
+		DoubleSupplier anotherSource = RandomSources.seeded(42);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(someSource.getAsDouble(), anotherSource.getAsDouble());
+		}
+	}
+
+	@Test
+	public void testThreadLocalCanBeUsedByIteratorSharedBetweenThreads() throws Exception {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.add(new WeightedElement<>(1, "element"));
+		list.setDrawEngine(DrawEngine.ALIAS_TABLE);
+		WeightedRandomizedEndlessIterator<String> iterator = list.randomizedIterator(RandomSources.threadLocal());
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Callable<Integer> task = () -> {
+				int[] indices = new int[1000];
+				iterator.drawIndices(indices, 0, indices.length);
+				int sum = 0;
+				for (int index : indices) {
+					sum = sum + index;
+				}
+				return sum;
+			};
+			for (Future<Integer> result : executor.invokeAll(Collections.nCopies(4, task))) {
+				assertEquals(0, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private void assertValuesBetweenZeroAndOne(DoubleSupplier randomSource) {
+		for (int i = 0; i < 1000; i++) {
+			double value = randomSource.getAsDouble();
+			assertTrue(value >= 0 && value < 1, () -> "Value " + value + " out of range");
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class RandomizedSpliteratorTest {
+
+	private FrozenWeightedRandomizedList<Integer> list = new FrozenWeightedRandomizedList<>(Arrays.asList(
+			new WeightedElement<>(1, 1),
+			new WeightedElement<>(2, 2),
+			new WeightedElement<>(3, 3)
+	));
+
+	@Test
+	public void testSpliteratorIsSizedAndSubsized() {
+		Spliterator<WeightedElement<Integer>> spliterator = new RandomizedSpliterator<>(list, 1, 0, 10000);
+
+		assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+		assertEquals(10000, spliterator.getExactSizeIfKnown());
+	}
+
+	@Test
+	public void testSplitsAreAlignedToBlocksAndCoverAllDraws() {
+		Spliterator<WeightedElement<Integer>> suffix = new RandomizedSpliterator<>(list, 1, 0, 10000);
+
+		Spliterator<WeightedElement<Integer>> prefix = suffix.trySplit();
+
+		assertEquals(4 * RandomizedSpliterator.BLOCK_SIZE, prefix.estimateSize());
+		assertEquals(10000 - 4 * RandomizedSpliterator.BLOCK_SIZE, suffix.estimateSize());
+	}
+
+	@Test
+	public void testSpliteratorWithinOneBlockDoesNotSplit() {
+		Spliterator<WeightedElement<Integer>> spliterator = new RandomizedSpliterator<>(list, 1, 0, RandomizedSpliterator.BLOCK_SIZE);
+
+		assertNull(spliterator.trySplit());
+	}
+
+	@Test
+	public void testDrawsDoNotDependOnSplits() {
+		List<WeightedElement<Integer>> unsplit = new ArrayList<>();
+		new RandomizedSpliterator<>(list, 5, 0, 5000).forEachRemaining(unsplit::add);
+
+		List<WeightedElement<Integer>> split = new ArrayList<>();
+		Spliterator<WeightedElement<Integer>> suffix = new RandomizedSpliterator<>(list, 5, 0, 5000);
+		suffix.tryAdvance(split::add);
+		Spliterator<WeightedElement<Integer>> prefix = suffix.trySplit();
+		prefix.forEachRemaining(split::add);
+		suffix.forEachRemaining(split::add);
+
+		assertEquals(unsplit, split);
+	}
+}
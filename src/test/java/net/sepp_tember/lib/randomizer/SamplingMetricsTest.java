@@ -0,0 +1,111 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class SamplingMetricsTest {
+
+	private WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+
+	@Test
+	public void testMetricsCountDrawsPerElement() {
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(1, "second"));
+		SamplingMetrics metrics = new SamplingMetrics(list);
+		list.setSamplingListener(metrics);
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(() -> 0.75);
+
+		for (int i = 0; i < 10; i++) {
+			iterator.next();
+		}
+
+		assertEquals(10, metrics.getTotalDraws());
+		assertEquals(0, metrics.getHitCount(0));
+		assertEquals(10, metrics.getHitCount(1));
+		assertArrayEquals(new double[] {-0.5, 0.5}, metrics.getProbabilityDeviations(), 1e-12);
+		assertEquals(0.5, metrics.getMaxProbabilityDeviation(), 1e-12);
+	}
+
+	@Test
+	public void testObservedDistributionMatchesWeights() {
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(3, "second"));
+		SamplingMetrics metrics = new SamplingMetrics(list);
+		list.setSamplingListener(metrics);
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(RandomSources.seeded(1));
+
+		for (int i = 0; i < 100000; i++) {
+			iterator.next();
+		}
+
+		assertTrue(metrics.getMaxProbabilityDeviation() < 0.01);
+		assertTrue(metrics.getDrawsPerSecond() > 0);
+	}
+
+	@Test
+	public void testMetricsCountRebuildsOfAliasTable() {
+		list.setDrawEngine(DrawEngine.ALIAS_TABLE);
+		list.add(new WeightedElement<>(1, "first"));
+		SamplingMetrics metrics = new SamplingMetrics(list);
+		list.setSamplingListener(metrics);
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		iterator.next();
+		iterator.next();
+		list.add(new WeightedElement<>(1, "second"));
+		iterator.next();
+
+		assertEquals(2, metrics.getRebuildCount());
+	}
+
+	@Test
+	public void testIteratorsCreatedWithoutListenerAreNotInstrumented() {
+		list.add(new WeightedElement<>(1, "first"));
+		SamplingMetrics metrics = new SamplingMetrics(list);
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+		list.setSamplingListener(metrics);
+
+		iterator.next();
+
+		assertEquals(0, metrics.getTotalDraws());
+	}
+
+	@Test
+	public void testResetClearsCounters() {
+		list.add(new WeightedElement<>(1, "first"));
+		SamplingMetrics metrics = new SamplingMetrics(list);
+		list.setSamplingListener(metrics);
+		list.randomizedIterator().next();
+
+		metrics.reset();
+
+		assertEquals(0, metrics.getTotalDraws());
+		assertEquals(0, metrics.getHitCount(0));
+		assertEquals(0, metrics.getRebuildCount());
+	}
+
+	@Test
+	public void testMetricsCanBeRegisteredAsMXBean() throws Exception {
+		list.add(new WeightedElement<>(1, "first"));
+		SamplingMetrics metrics = new SamplingMetrics(list);
+		list.setSamplingListener(metrics);
+		list.randomizedIterator().next();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("net.sepp_tember.lib.randomizer:type=SamplingMetrics,name=test");
+
+		server.registerMBean(metrics, name);
+		try {
+			assertEquals(1L, server.getAttribute(name, "TotalDraws"));
+		} finally {
+			server.unregisterMBean(name);
+		}
+	}
+}
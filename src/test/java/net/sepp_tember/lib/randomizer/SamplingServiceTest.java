@@ -0,0 +1,173 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class SamplingServiceTest {
+
+	private static WeightedRandomizedList<String> createList() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(3, "second"));
+		return list;
+	}
+
+	@Test
+	public void testDrawCompletesFutureWithElementOfList() throws Exception {
+		WeightedRandomizedList<String> list = createList();
+		try (SamplingService<WeightedElement<String>> service = new SamplingService<>(list)) {
+			WeightedElement<String> drawn = service.draw().get(10, TimeUnit.SECONDS);
+
+			assertTrue(list.contains(drawn));
+		}
+	}
+
+	@Test
+	public void testDrawsOfManyThreadsFollowWeights() throws Exception {
+		try (SamplingService<WeightedElement<String>> service = new SamplingService<>(createList())) {
+			List<CompletableFuture<List<WeightedElement<String>>>> futures =
+					Collections.synchronizedList(new ArrayList<>());
+			List<Thread> threads = new ArrayList<>();
+			for (int thread = 0; thread < 8; thread++) {
+				threads.add(new Thread(() -> {
+					for (int request = 0; request < 500; request++) {
+						futures.add(service.draw(5));
+					}
+				}));
+			}
+			threads.forEach(Thread::start);
+			for (Thread thread : threads) {
+				thread.join();
+			}
+
+			int firstCount = 0;
+			int drawCount = 0;
+			for (CompletableFuture<List<WeightedElement<String>>> future : futures) {
+				List<WeightedElement<String>> drawn = future.get(10, TimeUnit.SECONDS);
+				assertEquals(5, drawn.size());
+				for (WeightedElement<String> element : drawn) {
+					drawCount++;
+					if (element.getElement().equals("first")) {
+						firstCount++;
+					}
+				}
+			}
+
+			assertEquals(20000, drawCount);
+			assertEquals(5000, firstCount, 400);
+		}
+	}
+
+	@Test
+	public void testDrawFromFiniteIteratorStartsNewIteratorWhenExhausted() throws Exception {
+		UniformRandomizedList<Integer> list = new UniformRandomizedList<>(Arrays.asList(1, 2, 3));
+		try (SamplingService<Integer> service = new SamplingService<>(list)) {
+			List<Integer> drawn = service.draw(6).get(10, TimeUnit.SECONDS);
+
+			List<Integer> firstRound = new ArrayList<>(drawn.subList(0, 3));
+			List<Integer> secondRound = new ArrayList<>(drawn.subList(3, 6));
+			Collections.sort(firstRound);
+			Collections.sort(secondRound);
+			assertEquals(Arrays.asList(1, 2, 3), firstRound);
+			assertEquals(Arrays.asList(1, 2, 3), secondRound);
+		}
+	}
+
+	@Test
+	public void testDrawFromEmptyListCompletesExceptionally() {
+		try (SamplingService<WeightedElement<String>> service =
+				new SamplingService<>(new WeightedRandomizedList<>())) {
+			ExecutionException exception = assertThrows(ExecutionException.class,
+					() -> service.draw(2).get(10, TimeUnit.SECONDS));
+
+			assertTrue(exception.getCause() instanceof NoSuchElementException);
+		}
+	}
+
+	@Test
+	public void testDrawOfNoElementsCompletesImmediately() {
+		try (SamplingService<WeightedElement<String>> service = new SamplingService<>(createList())) {
+			CompletableFuture<List<WeightedElement<String>>> future = service.draw(0);
+
+			assertTrue(future.isDone());
+			assertTrue(future.join().isEmpty());
+			assertThrows(IllegalArgumentException.class, () -> service.draw(-1));
+		}
+	}
+
+	@Test
+	public void testCloseServesQueuedRequestsAndRejectsNewOnes() throws Exception {
+		SamplingService<WeightedElement<String>> service = new SamplingService<>(createList());
+		List<CompletableFuture<List<WeightedElement<String>>>> futures = new ArrayList<>();
+		for (int request = 0; request < 100; request++) {
+			futures.add(service.draw(3));
+		}
+
+		service.close();
+
+		for (CompletableFuture<List<WeightedElement<String>>> future : futures) {
+			assertEquals(3, future.get(10, TimeUnit.SECONDS).size());
+		}
+		assertThrows(IllegalStateException.class, service::draw);
+	}
+
+	@Test
+	public void testDrawRejectsCountAboveMaximum() {
+		try (SamplingService<WeightedElement<String>> service = new SamplingService<>(createList())) {
+			assertThrows(IllegalArgumentException.class, () -> service.draw(Integer.MAX_VALUE));
+		}
+	}
+
+	@Test
+	public void testLargeRequestIsServedOverSeveralBatches() throws Exception {
+		try (SamplingService<WeightedElement<String>> service = new SamplingService<>(createList())) {
+			CompletableFuture<List<WeightedElement<String>>> large = service.draw(SamplingService.MAX_BATCH_DRAWS * 2 + 3);
+			CompletableFuture<List<WeightedElement<String>>> small = service.draw(2);
+
+			assertEquals(2, small.get(10, TimeUnit.SECONDS).size());
+			List<WeightedElement<String>> drawn = large.get(10, TimeUnit.SECONDS);
+			assertEquals(SamplingService.MAX_BATCH_DRAWS * 2 + 3, drawn.size());
+			assertFalse(drawn.contains(null));
+		}
+	}
+
+	@Test
+	public void testFailedAllocationFailsOnlyAffectedRequest() throws Exception {
+		try (SamplingService<WeightedElement<String>> service = new SamplingService<>(createList())) {
+			ExecutionException exception = assertThrows(ExecutionException.class,
+					() -> service.draw(SamplingService.MAX_COUNT).get(10, TimeUnit.SECONDS));
+
+			assertTrue(exception.getCause() instanceof OutOfMemoryError);
+			assertEquals(1, service.draw(1).get(10, TimeUnit.SECONDS).size());
+		}
+	}
+
+	@Test
+	public void testErrorWhileDrawingKeepsWorkerServing() throws Exception {
+		boolean[] failed = {false};
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<String>(createList()) {
+			@Override
+			public WeightedElement<String> get(int index) {
+				if (!failed[0]) {
+					failed[0] = true;
+					throw new AssertionError("broken");
+				}
+				return super.get(index);
+			}
+		};
+		try (SamplingService<WeightedElement<String>> service = new SamplingService<>(list)) {
+			ExecutionException exception = assertThrows(ExecutionException.class,
+					() -> service.draw().get(10, TimeUnit.SECONDS));
+
+			assertTrue(exception.getCause() instanceof AssertionError);
+			assertNotNull(service.draw().get(10, TimeUnit.SECONDS));
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class ShardedWeightedRandomizedListTest {
+
+	private WeightedElement<String> first = new WeightedElement<>(1, "first");
+	private WeightedElement<String> second = new WeightedElement<>(2, "second");
+
+	private ShardedWeightedRandomizedList<String> list = new ShardedWeightedRandomizedList<>(4);
+
+	@Test
+	public void testConstructorRejectsLessThanOneShard() {
+		assertThrows(IllegalArgumentException.class, () -> new ShardedWeightedRandomizedList<>(0));
+	}
+
+	@Test
+	public void testDefaultConstructorCreatesAtLeastOneShard() {
+		assertTrue(new ShardedWeightedRandomizedList<>().getShardCount() >= 1);
+	}
+
+	@Test
+	public void testAddedElementsAreContained() {
+		list.add(first);
+		list.add(second);
+
+		assertEquals(2, list.size());
+		assertTrue(list.contains(first));
+		assertTrue(list.contains(second));
+		assertEquals(3, list.getTotalWeight());
+	}
+
+	@Test
+	public void testIndexMethodsWorkAcrossShards() {
+		ShardedWeightedRandomizedList<String> single = new ShardedWeightedRandomizedList<>(1);
+		single.add(first);
+		single.add(0, second);
+		single.set(1, new WeightedElement<>(3, "third"));
+		single.add(2, first);
+
+		assertSame(second, single.remove(0));
+		assertEquals(Arrays.asList(new WeightedElement<>(3, "third"), first), single);
+		assertEquals(4, single.getTotalWeight());
+	}
+
+	@Test
+	public void testGetReturnsElementsInShardOrder() {
+		for (int i = 0; i < 20; i++) {
+			list.add(new WeightedElement<>(1, "element " + i));
+		}
+
+		List<WeightedElement<String>> copy = new ArrayList<>(list);
+
+		for (int i = 0; i < 20; i++) {
+			assertSame(copy.get(i), list.get(i));
+		}
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(20));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+	}
+
+	@Test
+	public void testRemoveObjectAndClearUpdateTotalWeight() {
+		list.add(first);
+		list.add(second);
+
+		assertTrue(list.remove(second));
+		assertFalse(list.remove(second));
+		assertEquals(1, list.getTotalWeight());
+
+		list.clear();
+
+		assertTrue(list.isEmpty());
+		assertEquals(0, list.getTotalWeight());
+	}
+
+	@Test
+	public void testBulkRemovalsWorkAcrossShardsAndUpdateTotalWeight() {
+		for (int i = 0; i < 10; i++) {
+			list.add(new WeightedElement<>(1, "light " + i));
+			list.add(new WeightedElement<>(3, "heavy " + i));
+		}
+		list.add(first);
+		list.add(second);
+
+		assertTrue(list.removeIf(element -> element.getElement().startsWith("light")));
+		assertFalse(list.removeIf(element -> element.getElement().startsWith("light")));
+		assertEquals(12, list.size());
+		assertEquals(33, list.getTotalWeight());
+
+		assertTrue(list.removeAll(Arrays.asList(first, second)));
+		assertEquals(10, list.size());
+		assertEquals(30, list.getTotalWeight());
+
+		assertTrue(list.retainAll(Collections.singletonList(new WeightedElement<>(3, "heavy 7"))));
+		assertEquals(Collections.singletonList(new WeightedElement<>(3, "heavy 7")), list);
+		assertEquals(3, list.getTotalWeight());
+
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+		for (int i = 0; i < 100; i++) {
+			assertEquals("heavy 7", iterator.next().getElement());
+		}
+	}
+
+	@Test
+	public void testIteratorWorksOnCopy() {
+		list.add(first);
+		Iterator<WeightedElement<String>> iterator = list.iterator();
+
+		list.clear();
+
+		assertSame(first, iterator.next());
+		assertThrows(UnsupportedOperationException.class, iterator::remove);
+	}
+
+	@Test
+	public void testRandomizedIteratorSkipsZeroWeightShards() {
+		for (int i = 0; i < 20; i++) {
+			list.add(new WeightedElement<>(0, "never"));
+		}
+		list.add(second);
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		for (int i = 0; i < 100; i++) {
+			assertSame(second, iterator.next());
+		}
+	}
+
+	@Test
+	public void testRandomizedIteratorDrawsProportionallyToWeights() {
+		for (int i = 0; i < 10; i++) {
+			list.add(new WeightedElement<>(1, "light"));
+			list.add(new WeightedElement<>(3, "heavy"));
+		}
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(RandomSources.seeded(42));
+
+		int heavy = 0;
+		for (int i = 0; i < 10000; i++) {
+			if ("heavy".equals(iterator.next().getElement())) {
+				heavy++;
+			}
+		}
+
+		assertEquals(7500, heavy, 300);
+	}
+
+	@Test
+	public void testRandomizedIteratorHasNoNextIfListIsEmpty() {
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+
+	@Test
+	public void testConcurrentDrawsAndUpdates() throws Exception {
+		list.add(first);
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> tasks = new ArrayList<>();
+			for (int reader = 0; reader < 2; reader++) {
+				tasks.add(executor.submit(() -> {
+					for (int i = 0; i < 10000; i++) {
+						assertNotNull(iterator.next());
+					}
+				}));
+			}
+			for (int writer = 0; writer < 2; writer++) {
+				tasks.add(executor.submit(() -> {
+					for (int i = 0; i < 1000; i++) {
+						WeightedElement<String> element = new WeightedElement<>(1, "element " + i);
+						list.add(element);
+						list.remove(element);
+					}
+					for (int i = 0; i < 50; i++) {
+						list.add(new WeightedElement<>(1, "element " + i));
+					}
+				}));
+			}
+
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+			assertEquals(101, list.size());
+			assertEquals(101, list.getTotalWeight(), 1e-9);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
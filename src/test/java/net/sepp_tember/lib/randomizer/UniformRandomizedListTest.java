@@ -0,0 +1,111 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.function.DoubleSupplier;
+
+import org.junit.jupiter.api.Test;
+
+public class UniformRandomizedListTest {
+
+	@Test
+	public void testCopyConstructorSetsAllElements() {
+		UniformRandomizedList<String> list = new UniformRandomizedList<>(Arrays.asList("first", "second"));
+
+		assertEquals(Arrays.asList("first", "second"), list);
+	}
+
+	@Test
+	public void testCopyConstructorCreatesEmptyListIfSpecifiedCollectionIsNull() {
+		assertTrue(new UniformRandomizedList<String>(null).isEmpty());
+	}
+
+	@Test
+	public void testListMethodsModifyList() {
+		UniformRandomizedList<String> list = new UniformRandomizedList<>();
+		list.add("first");
+		list.add(0, "second");
+		list.set(1, "third");
+		list.remove(0);
+
+		assertEquals(Collections.singletonList("third"), list);
+	}
+
+	@Test
+	public void testRandomizedIteratorReturnsEachElementExactlyOnce() {
+		List<Integer> elements = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			elements.add(i);
+		}
+		UniformRandomizedList<Integer> list = new UniformRandomizedList<>(elements);
+
+		List<Integer> drawn = new ArrayList<>();
+		for (Integer element : list.randomized()) {
+			drawn.add(element);
+		}
+
+		assertNotEquals(elements, drawn);
+		Collections.sort(drawn);
+		assertEquals(elements, drawn);
+		assertEquals(elements, list);
+	}
+
+	@Test
+	public void testRandomizedIteratorWithLowestRandomValuesKeepsOrder() {
+		UniformRandomizedList<String> list = new UniformRandomizedList<>(Arrays.asList("first", "second", "third"));
+
+		Iterator<String> iterator = list.randomizedIterator(() -> 0);
+
+		assertEquals("first", iterator.next());
+		assertEquals("second", iterator.next());
+		assertEquals("third", iterator.next());
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+
+	@Test
+	public void testRandomizedIteratorWithHighestRandomValuesSwapsWithLastPosition() {
+		UniformRandomizedList<String> list = new UniformRandomizedList<>(Arrays.asList("first", "second", "third"));
+
+		Iterator<String> iterator = list.randomizedIterator(() -> 0.999999);
+
+		assertEquals("third", iterator.next());
+		assertEquals("first", iterator.next());
+		assertEquals("second", iterator.next());
+	}
+
+	@Test
+	public void testFirstElementIsUniformlyDistributed() {
+		UniformRandomizedList<Integer> list = new UniformRandomizedList<>(Arrays.asList(0, 1, 2, 3));
+		DoubleSupplier randomSource = RandomSources.seeded(9);
+
+		int[] counts = new int[4];
+		for (int i = 0; i < 10000; i++) {
+			counts[list.randomizedIterator(randomSource).next()]++;
+		}
+
+		for (int count : counts) {
+			assertEquals(2500, count, 200);
+		}
+	}
+
+	@Test
+	public void testRandomizedIteratorIsFailFast() {
+		UniformRandomizedList<String> list = new UniformRandomizedList<>(Arrays.asList("first", "second"));
+		Iterator<String> iterator = list.randomizedIterator();
+
+		list.add("third");
+
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+	}
+
+	@Test
+	public void testRandomizedIteratorDoesNotSupportRemove() {
+		UniformRandomizedList<String> list = new UniformRandomizedList<>(Arrays.asList("first"));
+		Iterator<String> iterator = list.randomizedIterator();
+		iterator.next();
+
+		assertThrows(UnsupportedOperationException.class, iterator::remove);
+	}
+}
@@ -0,0 +1,143 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class WeightedElementArrayListTest {
+
+	private WeightedElementArrayList<String> list = new WeightedElementArrayList<>();
+
+	@Test
+	public void testGetReturnsElementEqualToAddedElement() {
+		list.add(new WeightedElement<>(0.1, "first"));
+		list.add(new WeightedElement<>(0.2, "second"));
+
+		assertEquals(new WeightedElement<>(0.2, "second"), list.get(1));
+	}
+
+	@Test
+	public void testGetWeightAndGetElementReturnValuesOfAddedElement() {
+		list.add(new WeightedElement<>(0.1, "first"));
+
+		assertEquals(0.1, list.getWeight(0));
+		assertEquals("first", list.getElement(0));
+	}
+
+	@Test
+	public void testGetThrowsIndexOutOfBoundsExceptionIfGivenIndexIsGreaterOrEqualThanSize() {
+		list.add(new WeightedElement<>(0.1, "first"));
+
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+	}
+
+	@Test
+	public void testGetWeightThrowsIndexOutOfBoundsExceptionIfGivenIndexIsLowerThanZero() {
+		assertThrows(IndexOutOfBoundsException.class, () -> list.getWeight(-1));
+	}
+
+	@Test
+	public void testAddIndexedShiftsSubsequentElements() {
+		list.add(new WeightedElement<>(0.1, "first"));
+		list.add(new WeightedElement<>(0.3, "third"));
+
+		list.add(1, new WeightedElement<>(0.2, "second"));
+
+		assertEquals(Arrays.asList(
+				new WeightedElement<>(0.1, "first"),
+				new WeightedElement<>(0.2, "second"),
+				new WeightedElement<>(0.3, "third")
+		), list);
+	}
+
+	@Test
+	public void testAddIndexedThrowsIndexOutOfBoundsExceptionIfGivenIndexIsGreaterThanSize() {
+		assertThrows(IndexOutOfBoundsException.class, () -> list.add(1, new WeightedElement<>(0.1, "first")));
+	}
+
+	@Test
+	public void testAddThrowsNullPointerExceptionIfGivenElementIsNull() {
+		assertThrows(NullPointerException.class, () -> list.add(null));
+	}
+
+	@Test
+	public void testAddGrowsListBeyondInitialCapacity() {
+		for (int i = 0; i < 100; i++) {
+			list.add(new WeightedElement<>(i, "element " + i));
+		}
+
+		assertEquals(100, list.size());
+		assertEquals(99, list.getWeight(99));
+	}
+
+	@Test
+	public void testSetReplacesElementAndReturnsPreviousElement() {
+		list.add(new WeightedElement<>(0.1, "first"));
+
+		WeightedElement<String> previous = list.set(0, new WeightedElement<>(0.2, "second"));
+
+		assertEquals(new WeightedElement<>(0.1, "first"), previous);
+		assertEquals(new WeightedElement<>(0.2, "second"), list.get(0));
+	}
+
+	@Test
+	public void testRemoveShiftsSubsequentElementsAndReturnsRemovedElement() {
+		list.add(new WeightedElement<>(0.1, "first"));
+		list.add(new WeightedElement<>(0.2, "second"));
+
+		WeightedElement<String> removed = list.remove(0);
+
+		assertEquals(new WeightedElement<>(0.1, "first"), removed);
+		assertEquals(Arrays.asList(new WeightedElement<>(0.2, "second")), list);
+	}
+
+	@Test
+	public void testIndexOfAndLastIndexOfCompareWeightAndElement() {
+		list.add(new WeightedElement<>(0.1, "value"));
+		list.add(new WeightedElement<>(0.2, "value"));
+		list.add(new WeightedElement<>(0.1, null));
+		list.add(new WeightedElement<>(0.2, "value"));
+
+		assertEquals(1, list.indexOf(new WeightedElement<>(0.2, "value")));
+		assertEquals(3, list.lastIndexOf(new WeightedElement<>(0.2, "value")));
+		assertEquals(2, list.indexOf(new WeightedElement<>(0.1, null)));
+		assertEquals(-1, list.indexOf("value"));
+		assertFalse(list.contains(new WeightedElement<>(0.3, "value")));
+	}
+
+	@Test
+	public void testClearRemovesAllElements() {
+		list.add(new WeightedElement<>(0.1, "first"));
+
+		list.clear();
+
+		assertTrue(list.isEmpty());
+	}
+
+	@Test
+	public void testSubListClearRemovesRange() {
+		for (int i = 0; i < 5; i++) {
+			list.add(new WeightedElement<>(i, "element " + i));
+		}
+
+		list.subList(1, 4).clear();
+
+		assertEquals(Arrays.asList(new WeightedElement<>(0, "element 0"), new WeightedElement<>(4, "element 4")), list);
+	}
+
+	@Test
+	public void testIteratorRemoveRemovesElement() {
+		list.add(new WeightedElement<>(0.1, "first"));
+		list.add(new WeightedElement<>(0.2, "second"));
+		Iterator<WeightedElement<String>> iterator = list.iterator();
+		iterator.next();
+
+		iterator.remove();
+
+		assertEquals(Arrays.asList(new WeightedElement<>(0.2, "second")), list);
+	}
+}
@@ -0,0 +1,142 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class WeightedListLoaderTest {
+
+	private static ReadableByteChannel channel(byte[] content) {
+		return Channels.newChannel(new ByteArrayInputStream(content));
+	}
+
+	private static ReadableByteChannel channel(String content) {
+		return channel(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static byte[] records(double... weightsAndIds) {
+		ByteBuffer buffer = ByteBuffer.allocate(weightsAndIds.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+		for (int index = 0; index < weightsAndIds.length; index += 2) {
+			buffer.putDouble(weightsAndIds[index]);
+			buffer.putLong((long) weightsAndIds[index + 1]);
+		}
+		return buffer.array();
+	}
+
+	@Test
+	public void testLoadTextParsesWeightsAndElements() throws IOException {
+		WeightedRandomizedList<String> list = WeightedListLoader.loadText(
+				channel("1.5,first\n\n2,second,with separator\r\n"), ',', String::trim);
+
+		assertEquals(Arrays.asList(
+				new WeightedElement<>(1.5, "first"),
+				new WeightedElement<>(2, "second,with separator")
+		), list);
+		assertEquals(3.5, list.getTotalWeight());
+	}
+
+	@Test
+	public void testLoadTextUsesSpecifiedSeparator() throws IOException {
+		WeightedRandomizedList<Integer> list = WeightedListLoader.loadText(channel("0.5\t42"), '\t', Integer::valueOf);
+
+		assertEquals(new WeightedElement<>(0.5, 42), list.get(0));
+	}
+
+	@Test
+	public void testLoadTextRejectsInvalidWeights() {
+		IOException exception = assertThrows(IOException.class,
+				() -> WeightedListLoader.loadText(channel("1,first\nheavy,second"), ',', s -> s));
+
+		assertTrue(exception.getMessage().contains("Line 2"));
+	}
+
+	@Test
+	public void testLoadTextRejectsNegativeInfiniteAndNaNWeights() {
+		for (String weight : Arrays.asList("-5", "NaN", "Infinity", "1e400")) {
+			IOException exception = assertThrows(IOException.class,
+					() -> WeightedListLoader.loadText(channel("1,first\n" + weight + ",second"), ',', s -> s));
+
+			assertTrue(exception.getMessage().contains("Line 2"), weight);
+		}
+	}
+
+	@Test
+	public void testLoadTextRejectsLinesWithoutSeparator() {
+		assertThrows(IOException.class, () -> WeightedListLoader.loadText(channel("1"), ',', s -> s));
+	}
+
+	@Test
+	public void testLoadTextFromFile() throws IOException {
+		Path file = Files.createTempFile("weights", ".csv");
+		try {
+			Files.write(file, Arrays.asList("1,first", "3,second"), StandardCharsets.UTF_8);
+
+			WeightedRandomizedList<String> list = WeightedListLoader.loadText(file, s -> s);
+
+			assertEquals(2, list.size());
+			assertEquals(new WeightedElement<>(3, "second"), list.get(1));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testLoadBinaryMapsIdsToElements() throws IOException {
+		String[] elements = {"zero", "one", "two"};
+
+		WeightedRandomizedList<String> list = WeightedListLoader.loadBinary(channel(records(1, 2, 4, 0)),
+				id -> elements[(int) id]);
+
+		assertEquals(Arrays.asList(new WeightedElement<>(1, "two"), new WeightedElement<>(4, "zero")), list);
+	}
+
+	@Test
+	public void testLoadBinaryRejectsNegativeInfiniteAndNaNWeights() {
+		for (double weight : new double[] {-5, Double.NaN, Double.POSITIVE_INFINITY}) {
+			IOException exception = assertThrows(IOException.class,
+					() -> WeightedListLoader.loadBinary(channel(records(1, 0, 1, 1, weight, 2)), id -> id));
+
+			assertTrue(exception.getMessage().contains("Record 3"), Double.toString(weight));
+		}
+	}
+
+	@Test
+	public void testLoadBinaryRejectsTruncatedRecords() {
+		byte[] content = Arrays.copyOf(records(1, 2, 4, 0), 20);
+
+		assertThrows(IOException.class, () -> WeightedListLoader.loadBinary(channel(content), id -> id));
+	}
+
+	@Test
+	public void testLoadBinaryFromFileReadsRecordsAcrossBufferBoundaries() throws IOException {
+		double[] weightsAndIds = new double[2 * 10000];
+		for (int index = 0; index < 10000; index++) {
+			weightsAndIds[2 * index] = index;
+			weightsAndIds[2 * index + 1] = index;
+		}
+		Path file = Files.createTempFile("weights", ".bin");
+		try {
+			Files.write(file, records(weightsAndIds));
+
+			WeightedRandomizedList<Long> list = WeightedListLoader.loadBinary(file, id -> id);
+
+			assertEquals(10000, list.size());
+			assertEquals(new WeightedElement<>(9999, 9999L), list.get(9999));
+			assertEquals(49995000, list.getTotalWeight());
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
@@ -128,4 +128,107 @@ public class WeightedRandomizedEndlessIteratorTest {
 
 		assertThrows(IllegalStateException.class, iterator::remove);
 	}
+
+	@Test
+	public void testNextReturnsElementOfAliasWhenDrawnByAliasTable() {
+		WeightedElement<String> expected = new WeightedElement<>(3, "third");
+		List<WeightedElement<String>> list = Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(2, "second"),
+				expected
+		);
+		WeightedRandomizedEndlessIterator<String> iterator = new WeightedRandomizedEndlessIterator<>(list,
+				DrawEngine.ALIAS_TABLE, () -> 0.2);
+
+		WeightedElement<String> next = iterator.next();
+
+		assertSame(expected, next);
+	}
+
+	@Test
+	public void testNextReturnsCorrectElementAfterRemoveHasBeenCalledWhenDrawnByAliasTable() {
+		WeightedElement<String> expected = new WeightedElement<>(1, "first");
+		List<WeightedElement<String>> list = new ArrayList<>();
+		list.add(expected);
+		list.add(new WeightedElement<>(2, "second"));
+		list.add(new WeightedElement<>(3, "third"));
+		WeightedRandomizedEndlessIterator<String> iterator = new WeightedRandomizedEndlessIterator<>(list,
+				DrawEngine.ALIAS_TABLE, () -> 0.2);
+		iterator.next();
+		iterator.remove();
+
+		WeightedElement<String> next = iterator.next();
+
+		assertSame(expected, next);
+	}
+
+	@Test
+	public void testDrawIndicesStoresDrawnIndicesInGivenRange() {
+		PrimitiveIterator.OfDouble randomValues = Arrays.stream(new double[] {0.1, 0.2, 0.9}).iterator();
+		List<WeightedElement<String>> list = Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(2, "second"),
+				new WeightedElement<>(3, "third")
+		);
+		WeightedRandomizedEndlessIterator<String> iterator = new WeightedRandomizedEndlessIterator<>(list,
+				DrawEngine.LINEAR_SCAN, randomValues::nextDouble);
+		int[] indices = new int[5];
+
+		iterator.drawIndices(indices, 1, 3);
+
+		assertArrayEquals(new int[] {0, 0, 1, 2, 0}, indices);
+	}
+
+	@Test
+	public void testDrawIndicesThrowsIndexOutOfBoundsExceptionIfRangeExceedsArray() {
+		WeightedRandomizedEndlessIterator<String> iterator = new WeightedRandomizedEndlessIterator<>(
+				Collections.singletonList(new WeightedElement<>(1, "dummy")));
+
+		assertThrows(IndexOutOfBoundsException.class, () -> iterator.drawIndices(new int[3], 2, 2));
+		assertThrows(IndexOutOfBoundsException.class, () -> iterator.drawIndices(new int[3], -1, 2));
+		assertThrows(IndexOutOfBoundsException.class, () -> iterator.drawIndices(new int[3], 0, -1));
+	}
+
+	@Test
+	public void testDrawIndicesThrowsNoSuchElementExceptionIfListIsEmpty() {
+		WeightedRandomizedEndlessIterator<String> iterator = new WeightedRandomizedEndlessIterator<>(Collections.emptyList());
+
+		assertThrows(NoSuchElementException.class, () -> iterator.drawIndices(new int[1], 0, 1));
+	}
+
+	@Test
+	public void testDrawPassesValuesOfDrawnElementsToAction() {
+		PrimitiveIterator.OfDouble randomValues = Arrays.stream(new double[] {0.9, 0.2, 0.1}).iterator();
+		List<WeightedElement<String>> list = Arrays.asList(
+				new WeightedElement<>(1, "first"),
+				new WeightedElement<>(2, "second"),
+				new WeightedElement<>(3, "third")
+		);
+		WeightedRandomizedEndlessIterator<String> iterator = new WeightedRandomizedEndlessIterator<>(list,
+				DrawEngine.LINEAR_SCAN, randomValues::nextDouble);
+		List<String> drawn = new ArrayList<>();
+
+		iterator.draw(3, drawn::add);
+
+		assertEquals(Arrays.asList("third", "second", "first"), drawn);
+	}
+
+	@Test
+	public void testDrawThrowsIllegalArgumentExceptionIfCountIsNegative() {
+		WeightedRandomizedEndlessIterator<String> iterator = new WeightedRandomizedEndlessIterator<>(
+				Collections.singletonList(new WeightedElement<>(1, "dummy")));
+
+		assertThrows(IllegalArgumentException.class, () -> iterator.draw(-1, element -> {}));
+	}
+
+	@Test
+	public void testRemoveThrowsIllegalStateExceptionAfterDraw() {
+		List<WeightedElement<String>> list = new ArrayList<>();
+		list.add(new WeightedElement<>(1, "dummy"));
+		WeightedRandomizedEndlessIterator<String> iterator = new WeightedRandomizedEndlessIterator<>(list);
+		iterator.next();
+		iterator.draw(1, element -> {});
+
+		assertThrows(IllegalStateException.class, iterator::remove);
+	}
 }
@@ -0,0 +1,123 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.function.DoubleSupplier;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class WeightedRandomizedFiniteIteratorTest {
+
+	private WeightedElement<String> first = new WeightedElement<>(1, "first");
+	private WeightedElement<String> second = new WeightedElement<>(2, "second");
+	private WeightedElement<String> third = new WeightedElement<>(3, "third");
+
+	@Test
+	public void testIteratorReturnsEachElementExactlyOnce() {
+		List<WeightedElement<String>> list = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			list.add(new WeightedElement<>(i % 7, "element " + i));
+		}
+		Iterator<WeightedElement<String>> iterator = new WeightedRandomizedFiniteIterator<>(list, RandomSources.seeded(1));
+
+		Set<WeightedElement<String>> drawn = Collections.newSetFromMap(new IdentityHashMap<>());
+		while (iterator.hasNext()) {
+			assertTrue(drawn.add(iterator.next()));
+		}
+
+		assertEquals(100, drawn.size());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+
+	@Test
+	public void testIteratorDoesNotModifySourceList() {
+		List<WeightedElement<String>> list = new ArrayList<>(Arrays.asList(first, second, third));
+		Iterator<WeightedElement<String>> iterator = new WeightedRandomizedFiniteIterator<>(list);
+
+		while (iterator.hasNext()) {
+			iterator.next();
+		}
+
+		assertEquals(Arrays.asList(first, second, third), list);
+	}
+
+	@Test
+	public void testIteratorDrawsByRemainingWeights() {
+		List<WeightedElement<String>> list = Arrays.asList(first, second, third);
+		Iterator<WeightedElement<String>> iterator = new WeightedRandomizedFiniteIterator<>(list, () -> 0.5);
+
+		assertSame(third, iterator.next());
+		assertSame(second, iterator.next());
+		assertSame(first, iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testZeroWeightElementsAreReturnedLastInListOrder() {
+		WeightedElement<String> zero = new WeightedElement<>(0, "zero");
+		WeightedElement<String> otherZero = new WeightedElement<>(0, "other zero");
+		List<WeightedElement<String>> list = Arrays.asList(zero, first, otherZero, second);
+		Iterator<WeightedElement<String>> iterator = new WeightedRandomizedFiniteIterator<>(list, () -> 0.999999);
+
+		assertSame(second, iterator.next());
+		assertSame(first, iterator.next());
+		assertSame(zero, iterator.next());
+		assertSame(otherZero, iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testIteratorOfEmptyListHasNoNext() {
+		Iterator<WeightedElement<String>> iterator = new WeightedRandomizedFiniteIterator<>(Collections.emptyList());
+
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+
+	@Test
+	public void testIteratorDoesNotSupportRemove() {
+		Iterator<WeightedElement<String>> iterator = new WeightedRandomizedFiniteIterator<>(Arrays.asList(first));
+		iterator.next();
+
+		assertThrows(UnsupportedOperationException.class, iterator::remove);
+	}
+
+	@Test
+	public void testFirstDrawIsDistributedByWeights() {
+		List<WeightedElement<String>> list = Arrays.asList(first, third);
+		DoubleSupplier randomSource = RandomSources.seeded(7);
+
+		int heavy = 0;
+		for (int i = 0; i < 10000; i++) {
+			if (new WeightedRandomizedFiniteIterator<>(list, randomSource).next() == third) {
+				heavy++;
+			}
+		}
+
+		assertEquals(7500, heavy, 300);
+	}
+
+	@Test
+	public void testDrawsAfterSkewedWeightAreDistributedByRemainingWeights() {
+		List<WeightedElement<String>> list = new ArrayList<>();
+		list.add(new WeightedElement<>(1e17, "heavy"));
+		for (int i = 0; i < 8; i++) {
+			list.add(new WeightedElement<>(1, "light " + i));
+		}
+		DoubleSupplier randomSource = RandomSources.seeded(7);
+
+		Map<String, Integer> counts = new HashMap<>();
+		for (int i = 0; i < 20000; i++) {
+			Iterator<WeightedElement<String>> iterator = new WeightedRandomizedFiniteIterator<>(list, randomSource);
+			assertEquals("heavy", iterator.next().getElement());
+			counts.merge(iterator.next().getElement(), 1, Integer::sum);
+		}
+
+		assertEquals(8, counts.size());
+		for (int count : counts.values()) {
+			assertEquals(2500, count, 250);
+		}
+	}
+}
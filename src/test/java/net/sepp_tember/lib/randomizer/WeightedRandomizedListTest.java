@@ -39,17 +39,13 @@ public class WeightedRandomizedListTest {
 				dynamicTest("get", () -> delegationTester.testReturningCall(List::get, element, 3)),
 				dynamicTest("index of", () -> delegationTester.testReturningCall(List::indexOf, 3, new Object())),
 				dynamicTest("is empty", () -> delegationTester.testReturningCall(List::isEmpty, true)),
-				dynamicTest("iterator", () -> delegationTester.testReturningCall(List::iterator, new FakeListIterator())),
 				dynamicTest("last index of", () -> delegationTester.testReturningCall(List::lastIndexOf, 3, new Object())),
-				dynamicTest("list iterator", () -> delegationTester.testReturningCall(List::listIterator, new FakeListIterator())),
-				dynamicTest("list iterator index", () -> delegationTester.testReturningCall(List::listIterator, new FakeListIterator(), 3)),
 				dynamicTest("remove indexed", () -> delegationTester.testReturningCall(List::remove, element, 3)),
 				dynamicTest("remove object", () -> delegationTester.testReturningCall(List::remove, true, new Object())),
 				dynamicTest("remove all", () -> delegationTester.testReturningCall(List::removeAll, true, new ArrayList<>())),
 				dynamicTest("retain all", () -> delegationTester.testReturningCall(List::retainAll, true, new ArrayList<>())),
 				dynamicTest("set", () -> delegationTester.testReturningCall(List::set, element, 3, element)),
 				dynamicTest("size", () -> delegationTester.testReturningCall(List::size, 5)),
-				dynamicTest("sublist", () -> delegationTester.testReturningCall(List::subList, new ArrayList(), 3, 5)),
 				dynamicTest("to object array", () -> delegationTester.testReturningCall(List::toArray, new Object[] {})),
 				dynamicTest("to typed array", () -> delegationTester.testReturningCall(List::toArray, new Object[] {}, new Object[] {}))
 		);
@@ -186,7 +182,7 @@ public class WeightedRandomizedListTest {
 	public void testToArrayTypedThrowsNullPointerExceptionIfGivenArrayNull() {
 		WeightedRandomizedList<WeightedElement<Object>> list = new WeightedRandomizedList<>();
 
-		assertThrows(NullPointerException.class, () -> list.toArray(null));
+		assertThrows(NullPointerException.class, () -> list.toArray((Object[]) null));
 	}
 
 	@Test
@@ -196,6 +192,364 @@ public class WeightedRandomizedListTest {
 		assertEquals(WeightedRandomizedEndlessIterator.class, list.randomizedIterator().getClass());
 	}
 
+	@Test
+	public void testDrawEngineIsLinearScanByDefault() {
+		WeightedRandomizedList<Object> list = new WeightedRandomizedList<>();
+
+		assertEquals(DrawEngine.LINEAR_SCAN, list.getDrawEngine());
+	}
+
+	@Test
+	public void testSetDrawEngineThrowsNullPointerExceptionIfGivenDrawEngineIsNull() {
+		WeightedRandomizedList<Object> list = new WeightedRandomizedList<>();
+
+		assertThrows(NullPointerException.class, () -> list.setDrawEngine(null));
+	}
+
+	@Test
+	public void testRandomizedIteratorDrawsElementsWithSpecifiedDrawEngine() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.add(new WeightedElement<>(0, "never"));
+		list.add(new WeightedElement<>(1, "always"));
+		list.setDrawEngine(DrawEngine.ALIAS_TABLE);
+
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals("always", iterator.next().getElement());
+		}
+	}
+
+	@Test
+	public void testRandomizedIteratorOfFenwickTreeEngineTracksModificationsOfList() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.setDrawEngine(DrawEngine.FENWICK_TREE);
+		list.add(new WeightedElement<>(1, "removed"));
+		list.add(new WeightedElement<>(1, "replaced"));
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		list.add(0, new WeightedElement<>(0, "inserted"));
+		list.remove(1);
+		list.set(1, new WeightedElement<>(0, "replacement"));
+		list.addAll(Arrays.asList(new WeightedElement<>(0, "appended"), new WeightedElement<>(1, "expected")));
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals("expected", iterator.next().getElement());
+		}
+	}
+
+	@Test
+	public void testRandomizedIteratorOfFenwickTreeEngineTracksModificationsThroughViews() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.setDrawEngine(DrawEngine.FENWICK_TREE);
+		list.add(new WeightedElement<>(1, "removed"));
+		list.add(new WeightedElement<>(1, "expected"));
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		list.subList(0, 1).clear();
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals("expected", iterator.next().getElement());
+		}
+	}
+
+	@Test
+	public void testViewsReflectBackingList() {
+		List<WeightedElement<Object>> backingList = new ArrayList<>(Arrays.asList(
+				new WeightedElement<>(1, "first"), new WeightedElement<>(2, "second"), new WeightedElement<>(3, "third")));
+		WeightedRandomizedList<Object> list = new WeightedRandomizedList<>();
+		list.setBackingList(backingList);
+
+		assertEquals(backingList, toList(list.iterator()));
+		assertEquals(backingList, toList(list.listIterator()));
+		assertEquals(backingList.subList(1, 3), toList(list.listIterator(1)));
+		assertEquals(backingList.subList(1, 3), list.subList(1, 3));
+
+		ListIterator<WeightedElement<Object>> iterator = list.listIterator(1);
+		iterator.next();
+		iterator.set(new WeightedElement<>(4, "replacement"));
+		iterator.add(new WeightedElement<>(8, "added"));
+		list.subList(0, 1).remove(0);
+
+		assertEquals(Arrays.asList(new WeightedElement<>(4, "replacement"), new WeightedElement<>(8, "added"),
+				new WeightedElement<>(3, "third")), backingList);
+	}
+
+	private static <T> List<T> toList(Iterator<T> iterator) {
+		List<T> elements = new ArrayList<>();
+		iterator.forEachRemaining(elements::add);
+		return elements;
+	}
+
+	@Test
+	public void testRandomizedIteratorOfFenwickTreeEngineTracksRemovalThroughIteratorAfterDraw() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.setDrawEngine(DrawEngine.FENWICK_TREE);
+		list.add(new WeightedElement<>(1, "removed"));
+		list.add(new WeightedElement<>(1, "expected"));
+		list.add(new WeightedElement<>(1, "expected"));
+		Iterator<WeightedElement<String>> iterator = list.iterator();
+		Iterator<WeightedElement<String>> randomizedIterator = list.randomizedIterator();
+		randomizedIterator.next();
+
+		iterator.next();
+		iterator.remove();
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals("expected", randomizedIterator.next().getElement());
+		}
+	}
+
+	@Test
+	public void testRandomizedIteratorOfFenwickTreeEngineTracksModificationsThroughListIteratorAfterDraw() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.setDrawEngine(DrawEngine.FENWICK_TREE);
+		list.add(new WeightedElement<>(1, "replaced"));
+		list.add(new WeightedElement<>(1, "removed"));
+		Iterator<WeightedElement<String>> randomizedIterator = list.randomizedIterator();
+		randomizedIterator.next();
+
+		ListIterator<WeightedElement<String>> iterator = list.listIterator();
+		iterator.next();
+		iterator.set(new WeightedElement<>(0, "replaced"));
+		iterator.add(new WeightedElement<>(1, "expected"));
+		iterator.next();
+		iterator.remove();
+		list.subList(0, 1).add(new WeightedElement<>(0, "added"));
+
+		assertEquals(3, list.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals("expected", randomizedIterator.next().getElement());
+		}
+	}
+
+	@Test
+	public void testTotalWeightTracksRemovalThroughIteratorAfterDraw() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>(Arrays.asList(
+				new WeightedElement<>(100, "removed"), new WeightedElement<>(1, "expected")));
+		Iterator<WeightedElement<String>> randomizedIterator = list.randomizedIterator();
+		randomizedIterator.next();
+
+		Iterator<WeightedElement<String>> iterator = list.iterator();
+		iterator.next();
+		iterator.remove();
+
+		assertEquals(1, list.getTotalWeight());
+		for (int i = 0; i < 100; i++) {
+			assertEquals("expected", randomizedIterator.next().getElement());
+		}
+	}
+
+	@Test
+	public void testReadingThroughViewsDoesNotRebuildSampler() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.setDrawEngine(DrawEngine.FENWICK_TREE);
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(1, "second"));
+		List<Boolean> rebuilds = new ArrayList<>();
+		list.setSamplingListener(new SamplingListener() {
+			@Override
+			public void drawn(int index) {
+			}
+
+			@Override
+			public void samplerRebuilt() {
+				rebuilds.add(true);
+			}
+		});
+		Iterator<WeightedElement<String>> randomizedIterator = list.randomizedIterator();
+		randomizedIterator.next();
+		rebuilds.clear();
+
+		for (WeightedElement<String> element : list) {
+			assertNotNull(element);
+		}
+		list.subList(0, 2).get(1);
+		randomizedIterator.next();
+
+		assertEquals(emptyList(), rebuilds);
+	}
+
+	@Test
+	public void testRandomizedIteratorOfFenwickTreeEngineRemovesFromList() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.setDrawEngine(DrawEngine.FENWICK_TREE);
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(1, "second"));
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+		WeightedElement<String> removed = iterator.next();
+		iterator.remove();
+
+		WeightedElement<String> next = list.randomizedIterator().next();
+
+		assertEquals(1, list.size());
+		assertNotSame(removed, next);
+	}
+
+	@Test
+	public void testTotalWeightIsMaintainedOnModifications() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>(Arrays.asList(
+				new WeightedElement<>(1, "first"), new WeightedElement<>(2, "second")));
+
+		list.add(new WeightedElement<>(4, "third"));
+		list.set(0, new WeightedElement<>(8, "replacement"));
+		list.remove(new WeightedElement<>(2, "second"));
+		list.removeAll(Collections.singletonList(new WeightedElement<>(4, "third")));
+
+		assertEquals(8, list.getTotalWeight());
+
+		list.clear();
+
+		assertEquals(0, list.getTotalWeight());
+	}
+
+	@Test
+	public void testConcurrentDrawsAfterUntrackedModificationRebuildSamplingDataConsistently() throws InterruptedException {
+		for (DrawEngine drawEngine : DrawEngine.values()) {
+			WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+			list.setDrawEngine(drawEngine);
+			for (int i = 0; i < 1000; i++) {
+				list.add(new WeightedElement<>(i % 2 == 0 ? 1 : 3, i % 2 == 0 ? "expected" : "removed"));
+			}
+			Iterator<WeightedElement<String>> iterator = list.randomizedIterator(RandomSources.threadLocal());
+			list.removeIf(element -> element.getElement().equals("removed"));
+			List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+			Thread[] threads = new Thread[4];
+			for (int t = 0; t < threads.length; t++) {
+				threads[t] = new Thread(() -> {
+					try {
+						for (int i = 0; i < 10000; i++) {
+							assertEquals("expected", iterator.next().getElement());
+						}
+					} catch (Throwable e) {
+						failures.add(e);
+					}
+				});
+				threads[t].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+
+			assertEquals(emptyList(), failures, drawEngine.name());
+			assertEquals(500, list.getTotalWeight(), drawEngine.name());
+		}
+	}
+
+	@Test
+	public void testTotalWeightDoesNotDriftOnManyModifications() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.add(new WeightedElement<>(1e-3, "stays"));
+
+		for (int i = 0; i < 100000; i++) {
+			list.add(new WeightedElement<>(1e8 + i * 0.1, "temporary"));
+			list.remove(1);
+		}
+
+		assertEquals(1e-3, list.getTotalWeight(), 1e-15);
+	}
+
+	@Test
+	public void testRandomizedIteratorOfLinearScanEngineTracksModificationsOfList() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.add(new WeightedElement<>(1, "replaced"));
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(() -> 0.2);
+
+		list.set(0, new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(3, "second"));
+
+		assertEquals("first", iterator.next().getElement());
+		list.remove(0);
+		assertEquals("second", iterator.next().getElement());
+	}
+
+	@Test
+	public void testRandomizedIteratorOfAliasTableEngineTracksModificationsOfList() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.setDrawEngine(DrawEngine.ALIAS_TABLE);
+		list.add(new WeightedElement<>(1, "replaced"));
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+		iterator.next();
+
+		list.set(0, new WeightedElement<>(0, "never"));
+		list.add(new WeightedElement<>(1, "expected"));
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals("expected", iterator.next().getElement());
+		}
+	}
+
+	@Test
+	public void testRandomizedIteratorRemovalUpdatesTotalWeight() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(2, "second"));
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(() -> 0.9);
+
+		iterator.next();
+		iterator.remove();
+
+		assertEquals(1, list.getTotalWeight());
+		assertEquals("first", iterator.next().getElement());
+	}
+
+	@Test
+	public void testWithStorageModeCreatesEmptyList() {
+		WeightedRandomizedList<String> list = WeightedRandomizedList.withStorageMode(StorageMode.PRIMITIVE_ARRAYS);
+
+		assertTrue(list.isEmpty());
+	}
+
+	@Test
+	public void testWithStorageModeThrowsNullPointerExceptionIfGivenStorageModeIsNull() {
+		assertThrows(NullPointerException.class, () -> WeightedRandomizedList.withStorageMode(null));
+	}
+
+	@Test
+	public void testRandomizedIteratorDrawsElementsStoredInPrimitiveArrays() {
+		WeightedRandomizedList<String> list = WeightedRandomizedList.withStorageMode(StorageMode.PRIMITIVE_ARRAYS);
+		list.add(new WeightedElement<>(0, "never"));
+		list.add(new WeightedElement<>(1, "always"));
+
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator();
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(new WeightedElement<>(1, "always"), iterator.next());
+		}
+	}
+
+	@Test
+	public void testRandomizedIteratorUsesSpecifiedRandomSource() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(1, "second"));
+
+		Iterator<WeightedElement<String>> iterator = list.randomizedIterator(() -> 0.75);
+
+		assertEquals("second", iterator.next().getElement());
+	}
+
+	@Test
+	public void testRandomizedIteratorThrowsNullPointerExceptionIfGivenRandomSourceIsNull() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+
+		assertThrows(NullPointerException.class, () -> list.randomizedIterator(null));
+	}
+
+	@Test
+	public void testRandomizedIteratorWithoutReplacementDrawsEachElementOnceWithoutModifyingList() {
+		WeightedRandomizedList<String> list = new WeightedRandomizedList<>();
+		list.add(new WeightedElement<>(1, "first"));
+		list.add(new WeightedElement<>(3, "second"));
+
+		Iterator<WeightedElement<String>> iterator = list.randomizedIteratorWithoutReplacement(() -> 0.5);
+
+		assertEquals("second", iterator.next().getElement());
+		assertEquals("first", iterator.next().getElement());
+		assertFalse(iterator.hasNext());
+		assertEquals(2, list.size());
+	}
+
 	@Test
 	public void testCopyConstructorSetsAllElements() {
 		List<WeightedElement<String>> expectedElements = Arrays.asList(
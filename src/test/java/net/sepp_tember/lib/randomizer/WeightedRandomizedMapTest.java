@@ -0,0 +1,152 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+public class WeightedRandomizedMapTest {
+
+	private static WeightedRandomizedMap<String> createMap() {
+		WeightedRandomizedMap<String> map = new WeightedRandomizedMap<>();
+		map.setWeight("first", 1);
+		map.setWeight("second", 2);
+		map.setWeight("third", 3);
+		return map;
+	}
+
+	@Test
+	public void testSetWeightAddsAndUpdatesKeys() {
+		WeightedRandomizedMap<String> map = createMap();
+
+		assertEquals(2, map.setWeight("second", 5));
+		assertEquals(0, map.setWeight("fourth", 4));
+
+		assertEquals(5, map.weightOf("second"));
+		assertEquals(4, map.weightOf("fourth"));
+		assertEquals(0, map.weightOf("unknown"));
+		assertEquals(13, map.getTotalWeight());
+		assertEquals(4, map.size());
+	}
+
+	@Test
+	public void testSetWeightRejectsInvalidArguments() {
+		WeightedRandomizedMap<String> map = new WeightedRandomizedMap<>();
+
+		assertThrows(IllegalArgumentException.class, () -> map.setWeight("key", -1));
+		assertThrows(IllegalArgumentException.class, () -> map.setWeight("key", Double.NaN));
+		assertThrows(NullPointerException.class, () -> map.setWeight(null, 1));
+	}
+
+	@Test
+	public void testRemoveMovesLastKeyIntoFreedSlot() {
+		WeightedRandomizedMap<String> map = createMap();
+
+		assertEquals(Double.valueOf(1), map.remove("first"));
+		assertNull(map.remove("first"));
+
+		assertFalse(map.containsKey("first"));
+		assertEquals(2, map.weightOf("second"));
+		assertEquals(3, map.weightOf("third"));
+		assertEquals(5, map.getTotalWeight());
+	}
+
+	@Test
+	public void testRemoveOfHeaviestKeyKeepsOtherKeysDrawable() {
+		WeightedRandomizedMap<String> map = new WeightedRandomizedMap<>();
+		map.setWeight("heaviest", 1e17);
+		map.setWeight("first", 1);
+		map.setWeight("second", 1);
+		map.setWeight("third", 1);
+
+		map.remove("heaviest");
+
+		assertEquals(3, map.getTotalWeight());
+		double[] randomValues = {0.2, 0.5, 0.8};
+		int[] position = {0};
+		Iterator<String> iterator = map.randomizedIterator(() -> randomValues[position[0]++]);
+		Set<String> drawn = new HashSet<>();
+		for (int i = 0; i < randomValues.length; i++) {
+			drawn.add(iterator.next());
+		}
+		assertEquals(new HashSet<>(Arrays.asList("first", "second", "third")), drawn);
+	}
+
+	@Test
+	public void testMapMethodsUseBoxedWeights() {
+		Map<String, Integer> source = new LinkedHashMap<>();
+		source.put("first", 1);
+		source.put("second", 2);
+		WeightedRandomizedMap<String> map = new WeightedRandomizedMap<>(source);
+
+		assertNull(map.put("third", 3.0));
+		assertEquals(Double.valueOf(3), map.put("third", 4.0));
+
+		Map<String, Double> expected = new HashMap<>();
+		expected.put("first", 1.0);
+		expected.put("second", 2.0);
+		expected.put("third", 4.0);
+		assertEquals(expected, map);
+		assertNull(map.get("unknown"));
+	}
+
+	@Test
+	public void testEntryIteratorRemovesEntries() {
+		WeightedRandomizedMap<String> map = createMap();
+
+		map.entrySet().removeIf(entry -> entry.getValue() < 3);
+
+		assertEquals(Collections.singletonMap("third", 3.0), map);
+		assertEquals(3, map.getTotalWeight());
+	}
+
+	@Test
+	public void testEntryIteratorIsFailFast() {
+		WeightedRandomizedMap<String> map = createMap();
+		Iterator<Map.Entry<String, Double>> iterator = map.entrySet().iterator();
+
+		map.setWeight("fourth", 4);
+
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+	}
+
+	@Test
+	public void testRandomizedIteratorDrawsByWeight() {
+		WeightedRandomizedMap<String> map = createMap();
+		map.setWeight("first", 0);
+
+		Map<String, Integer> counts = new HashMap<>();
+		Iterator<String> iterator = map.randomizedIterator(RandomSources.seeded(7));
+		for (int i = 0; i < 10000; i++) {
+			counts.merge(iterator.next(), 1, Integer::sum);
+		}
+
+		assertNull(counts.get("first"));
+		assertEquals(4000, counts.get("second"), 200);
+		assertEquals(6000, counts.get("third"), 200);
+	}
+
+	@Test
+	public void testRandomizedIteratorReflectsModifications() {
+		WeightedRandomizedMap<String> map = createMap();
+		Iterator<String> iterator = map.randomizedIterator(() -> 0.99);
+
+		assertEquals("third", iterator.next());
+		iterator.remove();
+		assertFalse(map.containsKey("third"));
+		assertEquals("second", iterator.next());
+
+		map.setWeight("second", 0);
+		assertEquals("first", iterator.next());
+	}
+
+	@Test
+	public void testRandomizedIteratorOfEmptyMapHasNoNext() {
+		Iterator<String> iterator = new WeightedRandomizedMap<String>().randomizedIterator();
+
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+		assertThrows(IllegalStateException.class, iterator::remove);
+	}
+}
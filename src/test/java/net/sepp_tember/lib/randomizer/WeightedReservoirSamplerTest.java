@@ -0,0 +1,100 @@
+package net.sepp_tember.lib.randomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import net.sepp_tember.lib.randomizer.WeightedRandomizedList.WeightedElement;
+import org.junit.jupiter.api.Test;
+
+public class WeightedReservoirSamplerTest {
+
+	private WeightedElement<String> first = new WeightedElement<>(1, "first");
+	private WeightedElement<String> second = new WeightedElement<>(3, "second");
+	private WeightedElement<String> zero = new WeightedElement<>(0, "zero");
+
+	@Test
+	public void testSampleRejectsNegativeSize() {
+		assertThrows(IllegalArgumentException.class,
+				() -> WeightedReservoirSampler.sample(Stream.of(first), -1));
+	}
+
+	@Test
+	public void testSampleOfSizeZeroIsEmpty() {
+		assertTrue(WeightedReservoirSampler.sample(Stream.of(first, second), 0).isEmpty());
+	}
+
+	@Test
+	public void testSampleContainsAllElementsWithPositiveWeightIfThereAreFewerThanSize() {
+		List<WeightedElement<String>> sample = WeightedReservoirSampler.sample(Stream.of(first, zero, second), 5);
+
+		assertEquals(new HashSet<>(Arrays.asList(first, second)), new HashSet<>(sample));
+	}
+
+	@Test
+	public void testSampleOfMaximumSizeContainsAllElementsWithPositiveWeight() {
+		List<WeightedElement<String>> sample = WeightedReservoirSampler.sample(Stream.of(first, zero, second),
+				Integer.MAX_VALUE);
+
+		assertEquals(new HashSet<>(Arrays.asList(first, second)), new HashSet<>(sample));
+	}
+
+	@Test
+	public void testSampleNeverContainsElementsWithZeroWeight() {
+		for (int i = 0; i < 100; i++) {
+			List<WeightedElement<String>> sample = WeightedReservoirSampler.sample(
+					Arrays.asList(zero, first, zero, zero).iterator(), 1);
+
+			assertEquals(Collections.singletonList(first), sample);
+		}
+	}
+
+	@Test
+	public void testSampleContainsDistinctElements() {
+		List<WeightedElement<Integer>> elements = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			elements.add(new WeightedElement<>(1 + i % 5, i));
+		}
+
+		List<WeightedElement<Integer>> sample = WeightedReservoirSampler.sample(elements.iterator(), 50,
+				RandomSources.seeded(3));
+
+		assertEquals(50, sample.size());
+		assertEquals(50, new HashSet<>(sample).size());
+	}
+
+	@Test
+	public void testSingleElementSampleIsDistributedByWeights() {
+		DoubleSupplier randomSource = RandomSources.seeded(5);
+
+		int heavy = 0;
+		for (int i = 0; i < 10000; i++) {
+			List<WeightedElement<String>> sample = WeightedReservoirSampler.sample(
+					Stream.of(first, second, first, second), 1, randomSource);
+			if (sample.get(0) == second) {
+				heavy++;
+			}
+		}
+
+		assertEquals(7500, heavy, 300);
+	}
+
+	@Test
+	public void testLongStreamsNeedFewRandomValues() {
+		AtomicInteger calls = new AtomicInteger();
+		DoubleSupplier randomSource = RandomSources.seeded(11);
+
+		List<WeightedElement<Integer>> sample = WeightedReservoirSampler.sample(
+				IntStream.range(0, 100000).mapToObj(i -> new WeightedElement<>(1, i)), 10, () -> {
+					calls.incrementAndGet();
+					return randomSource.getAsDouble();
+				});
+
+		assertEquals(10, sample.size());
+		assertTrue(calls.get() < 2000, "random values drawn: " + calls.get());
+	}
+}